@@ -1,16 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,16 +21,22 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient, ResponseCache responseCache,
+            @Value("${shareit-server.passthrough:true}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                serverUrl + API_PREFIX,
+                passthrough,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getUserBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Object getUserBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -36,21 +45,30 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public Object getUserBookingsAfter(long userId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size
+        );
+        return get("?state={state}&after={after}&size={size}", userId, parameters);
+    }
+
 
-    public ResponseEntity<Object> addBooking(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Object addBooking(long userId, BookItemRequestDto requestDto) {
+        return post("", userId, requestDto, List.of("/items/" + requestDto.getItemId()));
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Object getBookingById(long userId, Long bookingId) {
+        return getCached("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approvedOrRejectedBooking(long userId, Long bookingId, boolean approved) {
+    public Object approvedOrRejectedBooking(long userId, Long bookingId, boolean approved) {
         String path = "/" + bookingId + "?approved=" + approved;
         return patch(path, userId);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Object getOwnerBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -58,4 +76,13 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public Object getOwnerBookingsAfter(long userId, BookingState state, String after, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size
+        );
+        return get("/owner?state={state}&after={after}&size={size}", userId, parameters);
+    }
 }
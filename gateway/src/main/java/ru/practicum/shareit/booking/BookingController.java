@@ -2,7 +2,6 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -32,45 +31,55 @@ public class BookingController {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(@RequestHeader(USER_ID_HEADER) long userId,
-                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Object getUserBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                  @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS"));
+        if (after != null) {
+            log.info("Get booking with state {}, userId={}, after={}, size={}", stateParam, userId, after, size);
+            return bookingClient.getUserBookingsAfter(userId, state, after, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getUserBookings(userId, state, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Object addBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                             @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.addBooking(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @PathVariable Long bookingId) {
+    public Object getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
+                                 @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approvedOrRejectedBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                                            @PathVariable Long bookingId,
-                                                            @RequestParam boolean approved) {
+    public Object approvedOrRejectedBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                                            @PathVariable Long bookingId,
+                                            @RequestParam boolean approved) {
         log.info("Creating bookingId {}, userId={},approved={} ", bookingId, userId, approved);
         return bookingClient.approvedOrRejectedBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId,
-                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Object getOwnerBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                   @RequestParam(name = "after", required = false) String after) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS"));
+        if (after != null) {
+            log.info("Get booking with state {}, userId={}, after={}, size={}", stateParam, userId, after, size);
+            return bookingClient.getOwnerBookingsAfter(userId, state, after, size);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getOwnerBookings(userId, state, from, size);
     }
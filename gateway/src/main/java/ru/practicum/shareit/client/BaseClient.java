@@ -1,100 +1,333 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.LOCATION);
+
     protected final RestTemplate rest;
 
+    @Nullable
+    private final WebClient webClient;
+
+    private final boolean passthrough;
+
+    private final String resourcePath;
+
+    @Nullable
+    private final ResponseCache responseCache;
+
     public BaseClient(RestTemplate rest) {
+        this(rest, false);
+    }
+
+    public BaseClient(RestTemplate rest, boolean passthrough) {
         this.rest = rest;
+        this.webClient = null;
+        this.passthrough = passthrough;
+        this.resourcePath = "";
+        this.responseCache = null;
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, String baseUrl, boolean passthrough) {
+        this(rest, webClient, baseUrl, passthrough, null);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, String baseUrl, boolean passthrough,
+                      @Nullable ResponseCache responseCache) {
+        this.rest = rest;
+        this.webClient = webClient == null ? null : webClient.mutate()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build();
+        this.passthrough = passthrough;
+        this.resourcePath = URI.create(baseUrl).getPath();
+        this.responseCache = responseCache;
+    }
+
+    protected Object get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Object get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Object get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, List.of());
+    }
+
+    protected Object getCached(String path, long userId) {
+        if (responseCache == null) {
+            return get(path, userId);
+        }
+        String resource = resourceOf(path);
+        ResponseEntity<Object> cached = responseCache.get(resource, userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = responseCache.generation(resource, userId);
+        if (webClient != null) {
+            return sendReactiveRequest(webClient, HttpMethod.GET, path, userId, null, null)
+                    .map(response -> responseCache.put(resource, userId, generation, response));
+        }
+        return responseCache.put(resource, userId, generation, exchange(HttpMethod.GET, path, userId, null, null));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Object post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Object post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Object post(String path, long userId, T body, Collection<String> affectedResources) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, affectedResources);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Object post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, List.of());
+    }
+
+    protected <T> Object put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Object put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, List.of());
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Object patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Object patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Object patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Object patch(String path, long userId, T body, Collection<String> affectedResources) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, null, body, affectedResources);
+    }
+
+    protected <T> Object patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, List.of());
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Object delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Object delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Object delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, List.of());
+    }
+
+    protected void stream(String path, MediaType mediaType, OutputStream outputStream) {
+        rest.execute(path, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(mediaType)),
+                response -> StreamUtils.copy(response.getBody(), outputStream));
+    }
+
+    private <T> Object makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters,
+                                          @Nullable T body, Collection<String> affectedResources) {
+        boolean invalidates = responseCache != null && method != HttpMethod.GET;
+        if (webClient != null) {
+            Mono<ResponseEntity<Object>> response = sendReactiveRequest(webClient, method, path, userId, parameters, body);
+            return invalidates ? response.doFinally(signal -> invalidate(path, userId, affectedResources)) : response;
+        }
+        try {
+            return sendRequest(method, path, userId, parameters, body);
+        } finally {
+            if (invalidates) {
+                invalidate(path, userId, affectedResources);
+            }
+        }
+    }
+
+    private void invalidate(String path, @Nullable Long userId, Collection<String> affectedResources) {
+        List<String> resources = new ArrayList<>(affectedResources);
+        resources.add(resourceOf(path));
+        responseCache.invalidate(resources, userId);
+    }
+
+    private String resourceOf(String path) {
+        String id = path.replaceFirst("^/", "").split("[/?]", 2)[0];
+        return id.isEmpty() ? resourcePath : resourcePath + "/" + id;
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> Mono<ResponseEntity<Object>> sendReactiveRequest(WebClient webClient, HttpMethod method, String path,
+                                                                 Long userId, @Nullable Map<String, Object> parameters,
+                                                                 @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestSpec = body != null ? request.bodyValue(body) : request;
+        return requestSpec.exchangeToMono(response -> {
+            HttpStatus status = response.statusCode();
+            HttpHeaders headers = passthrough ? passthroughHeaders(response.headers().asHttpHeaders()) : new HttpHeaders();
+            Class<?> responseType = passthrough || !status.is2xxSuccessful() ? byte[].class : Object.class;
+            return response.bodyToMono(responseType)
+                    .map(responseBody -> ResponseEntity.status(status).headers(headers).body((Object) responseBody))
+                    .defaultIfEmpty(ResponseEntity.status(status).headers(headers).build());
+        });
+    }
+
+    private <T> ResponseEntity<Object> sendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return passthrough ? relay(method, path, userId, parameters, body) : exchange(method, path, userId, parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> relay(HttpMethod method, String path, Long userId,
+                                             @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            if (body != null) {
+                writeBody(body, request);
+            }
+            response = request.execute();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                    .headers(passthroughHeaders(response.getHeaders()));
+            InputStream responseBody = nonEmptyBody(response);
+            if (responseBody == null) {
+                response.close();
+                return responseBuilder.build();
+            }
+            return responseBuilder.body(new InputStreamResource(releasingBody(response, responseBody)));
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBody(Object body, ClientHttpRequest request) throws IOException {
+        for (HttpMessageConverter<?> converter : rest.getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), MediaType.APPLICATION_JSON)) {
+                ((HttpMessageConverter<Object>) converter).write(body, MediaType.APPLICATION_JSON, request);
+                return;
+            }
+        }
+        throw new IllegalStateException("Нет конвертера для тела запроса " + body.getClass().getName());
+    }
+
+    @Nullable
+    private static InputStream nonEmptyBody(ClientHttpResponse response) throws IOException {
+        if (response.getHeaders().getContentLength() == 0) {
+            return null;
+        }
+        PushbackInputStream body = new PushbackInputStream(response.getBody());
+        int first = body.read();
+        if (first == -1) {
+            return null;
+        }
+        body.unread(first);
+        return body;
+    }
+
+    private static InputStream releasingBody(ClientHttpResponse response, InputStream body) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.registerDestructionCallback(ClientHttpResponse.class.getName() + "@"
+                    + System.identityHashCode(response), response::close, RequestAttributes.SCOPE_REQUEST);
+        }
+        return new FilterInputStream(body) {
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        Class<?> responseType = passthrough ? byte[].class : Object.class;
+        ResponseEntity<?> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(e.getStatusCode());
+            if (passthrough) {
+                responseBuilder.headers(passthroughHeaders(e.getResponseHeaders()));
+            }
+            return responseBuilder.body(e.getResponseBodyAsByteArray());
+        }
+        if (passthrough) {
+            return ResponseEntity.status(shareitServerResponse.getStatusCode())
+                    .headers(passthroughHeaders(shareitServerResponse.getHeaders()))
+                    .body(shareitServerResponse.getBody());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders == null) {
+            return headers;
+        }
+        for (String name : PASSTHROUGH_HEADERS) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -105,9 +338,9 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ResponseCache {
+    public static final String ALL_RESOURCES = "*";
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Key, Entry> responses;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLongArray resourceGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final AtomicLongArray userGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ResponseCache(long maximumSize, Duration timeToLive) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(String resource, long userId) {
+        Key key = new Key(resource, userId);
+        Entry entry = responses.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.getGeneration() != generation(resource, userId)) {
+            responses.asMap().remove(key, entry);
+            return null;
+        }
+        return entry.getResponse();
+    }
+
+    public long generation(String resource, long userId) {
+        return generation.get() + resourceGenerations.get(stripe(resource)) + userGenerations.get(stripe(userId));
+    }
+
+    public ResponseEntity<Object> put(String resource, long userId, long generation, ResponseEntity<Object> response) {
+        if (response.getStatusCode() != HttpStatus.OK || !(response.getBody() instanceof byte[])) {
+            return response;
+        }
+        byte[] body = (byte[]) response.getBody();
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.setETag("\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        ResponseEntity<Object> cached = ResponseEntity.ok().headers(headers).body(body);
+        if (generation(resource, userId) == generation) {
+            responses.put(new Key(resource, userId), new Entry(cached, generation));
+        }
+        return cached;
+    }
+
+    public void invalidate(Collection<String> resources, @Nullable Long userId) {
+        if (userId == null || resources.contains(ALL_RESOURCES)) {
+            generation.incrementAndGet();
+            return;
+        }
+        for (String resource : resources) {
+            resourceGenerations.incrementAndGet(stripe(resource));
+        }
+        userGenerations.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(String resource) {
+        return Math.floorMod(resource.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static int stripe(long userId) {
+        return Math.floorMod(Long.hashCode(userId), GENERATION_STRIPES);
+    }
+
+    @Value
+    private static class Key {
+        String resource;
+
+        long userId;
+    }
+
+    @Value
+    private static class Entry {
+        ResponseEntity<Object> response;
+
+        long generation;
+    }
+}
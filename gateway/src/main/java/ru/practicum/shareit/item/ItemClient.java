@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,37 +21,51 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient, ResponseCache responseCache,
+            @Value("${shareit-server.passthrough:true}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                serverUrl + API_PREFIX,
+                passthrough,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
+    public Object addItem(long userId, ItemDto itemDto) {
+        if (itemDto.getRequestId() != null) {
+            return post("", userId, itemDto, List.of("/requests/" + itemDto.getRequestId()));
+        }
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(long itemId, long userId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Object updateItem(long itemId, long userId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto, List.of(ResponseCache.ALL_RESOURCES));
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Object getItem(long userId, long itemId) {
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByOwnerId(long ownerId, long from, long size) {
+    public Object getItemsByOwnerId(long ownerId, long from, long size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("?from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
+    public Object getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Object addComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> searchItems(String text, long from, long size) {
+    public Object searchItems(String text, long from, long size) {
         String path = String.format("/search?text=%s&from=%d&size=%d", text, from, size);
         return get(path);
     }
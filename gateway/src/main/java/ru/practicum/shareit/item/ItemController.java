@@ -2,7 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,12 +14,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.validate.Create;
 import ru.practicum.shareit.validate.Update;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.booking.BookingController.USER_ID_HEADER;
 
@@ -31,46 +34,58 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(USER_ID_HEADER) long userId,
-                                          @Validated(Create.class) @RequestBody ItemDto itemDto) {
+    public Object addItem(@RequestHeader(USER_ID_HEADER) long userId,
+                          @Validated(Create.class) @RequestBody ItemDto itemDto) {
         log.info("Creating item {}, itemId={}", itemDto, userId);
         return itemClient.addItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable long itemId,
-                                             @RequestHeader(USER_ID_HEADER) long userId,
-                                             @Validated(Update.class) @RequestBody ItemDto itemDto) {
+    public Object updateItem(@PathVariable long itemId,
+                             @RequestHeader(USER_ID_HEADER) long userId,
+                             @Validated(Update.class) @RequestBody ItemDto itemDto) {
         log.info("Update item {}, itemId={}, userId={}", itemDto, itemId, userId);
         return itemClient.updateItem(itemId, userId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(USER_ID_HEADER) long userId, @PathVariable long itemId) {
+    public Object getItem(@RequestHeader(USER_ID_HEADER) long userId, @PathVariable long itemId) {
         log.info("Get item {}, userId={}", itemId, userId);
         return itemClient.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Object getItemAvailability(@RequestHeader(USER_ID_HEADER) long userId,
+                                      @PathVariable long itemId,
+                                      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Дата начала периода должна быть раньше даты окончания");
+        }
+        log.info("Get availability of item {}, userId={}, from={}, to={}", itemId, userId, from, to);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwnerId(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                    @PositiveOrZero @RequestParam(defaultValue = "0") long from,
-                                                    @Positive @RequestParam(defaultValue = "10") long size) {
+    public Object getItemsByOwnerId(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                    @PositiveOrZero @RequestParam(defaultValue = "0") long from,
+                                    @Positive @RequestParam(defaultValue = "10") long size) {
         log.info("Get items with userId={}, from={}, size={}", ownerId, from, size);
         return itemClient.getItemsByOwnerId(ownerId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @PathVariable long itemId,
-                                             @Valid @RequestBody CommentDto commentDto) {
+    public Object addComment(@RequestHeader(USER_ID_HEADER) long userId,
+                             @PathVariable long itemId,
+                             @Valid @RequestBody CommentDto commentDto) {
         log.info("Creating comment {}, itemId={}, userId={}", commentDto, itemId, userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0") long from,
-                                              @Positive @RequestParam(defaultValue = "10") long size) {
+    public Object searchItems(@RequestParam String text,
+                              @PositiveOrZero @RequestParam(defaultValue = "0") long from,
+                              @Positive @RequestParam(defaultValue = "10") long size) {
         log.info("Get items with text={}, from={}, size={}", text, from, size);
         return itemClient.searchItems(text, from, size);
     }
@@ -1,13 +1,15 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
 import java.util.Map;
 
@@ -17,30 +19,41 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient, ResponseCache responseCache,
+            @Value("${shareit-server.passthrough:true}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                serverUrl + API_PREFIX,
+                passthrough,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> createRequest(long userId, ItemRequestDto itemRequestDto) {
+    public Object createRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getUserRequests(long userId) {
+    public Object getUserRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, long from, long size) {
+    public Object getAllRequests(long userId, long from, long size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(long userId, long requestId) {
-        return get("/{requestId}", userId, Map.of("requestId", requestId));
+    public Object getAllRequestsAfter(long userId, String after, long size) {
+        Map<String, Object> parameters = Map.of("after", after, "size", size);
+        return get("/all?after={after}&size={size}", userId, parameters);
+    }
+
+    public Object getRequestById(long userId, long requestId) {
+        return getCached("/" + requestId, userId);
     }
 }
 
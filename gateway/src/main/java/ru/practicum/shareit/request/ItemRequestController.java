@@ -2,7 +2,6 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -28,28 +27,33 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(USER_ID_HEADER) long userId,
-                                                @Validated @RequestBody ItemRequestDto itemRequestDto) {
+    public Object createRequest(@RequestHeader(USER_ID_HEADER) long userId,
+                                @Validated @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Creating Request {}, userId={}", itemRequestDto, userId);
         return itemRequestClient.createRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader(USER_ID_HEADER) long userId) {
+    public Object getUserRequests(@RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Get Request userId={}", userId);
         return itemRequestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @PositiveOrZero @RequestParam(defaultValue = "0") long from,
-                                                 @Positive @RequestParam(defaultValue = "10") long size) {
+    public Object getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
+                                 @PositiveOrZero @RequestParam(defaultValue = "0") long from,
+                                 @Positive @RequestParam(defaultValue = "10") long size,
+                                 @RequestParam(name = "after", required = false) String after) {
+        if (after != null) {
+            log.info("Get Requests with userId={}, after={}, size={}", userId, after, size);
+            return itemRequestClient.getAllRequestsAfter(userId, after, size);
+        }
         log.info("Get Requests with userId={}, from={}, size={}", userId, from, size);
         return itemRequestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(USER_ID_HEADER) long userId, @PathVariable long requestId) {
+    public Object getRequestById(@RequestHeader(USER_ID_HEADER) long userId, @PathVariable long requestId) {
         log.info("Get Request requestId{},userId={}", requestId, userId);
         return itemRequestClient.getRequestById(userId, requestId);
     }
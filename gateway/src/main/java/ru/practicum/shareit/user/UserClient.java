@@ -1,47 +1,68 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.OutputStream;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient, ResponseCache responseCache,
+            @Value("${shareit-server.passthrough:true}") boolean passthrough) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                serverUrl + API_PREFIX,
+                passthrough,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> addUser(UserDto userDto) {
+    public Object addUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Object getAllUsers() {
         return get("/");
     }
 
-    public ResponseEntity<Object> getUserById(long id) {
+    public Object getUsers(long from, long size) {
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public void streamAllUsers(MediaType mediaType, OutputStream outputStream) {
+        stream("", mediaType, outputStream);
+    }
+
+    public Object getUserById(long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> removeUser(long id) {
+    public Object removeUser(long id) {
         return delete("/" + id);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
+    public Object updateUser(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 }
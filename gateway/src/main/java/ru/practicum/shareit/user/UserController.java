@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,10 +13,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validate.Create;
 import ru.practicum.shareit.validate.Update;
 
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
 
 @Controller
 @RequestMapping(path = "/users")
@@ -24,35 +30,51 @@ import ru.practicum.shareit.validate.Update;
 @Validated
 public class UserController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final UserClient userClient;
 
     @PostMapping()
-    public ResponseEntity<Object> addUser(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public Object addUser(@Validated(Create.class) @RequestBody UserDto userDto) {
         log.info("Creating user {}", userDto);
         return userClient.addUser(userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("GetAllUsers");
-        return userClient.getAllUsers();
+    public Object getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0") long from,
+                              @Positive @RequestParam(required = false) Long size) {
+        if (size == null) {
+            log.info("GetAllUsers");
+            return userClient.getAllUsers();
+        }
+        log.info("Get users from={}, size={}", from, size);
+        return userClient.getUsers(from, size);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("Stream all users");
+        MediaType mediaType = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(outputStream -> userClient.streamAllUsers(mediaType, outputStream));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable("id") long id) {
+    public Object getUserById(@PathVariable("id") long id) {
         log.info("Get user userId={}", id);
         return userClient.getUserById(id);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> removeUser(@PathVariable("id") long id) {
+    public Object removeUser(@PathVariable("id") long id) {
         log.info("Delete user userId={}", id);
         return userClient.removeUser(id);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable("userId") long userId,
-                                             @Validated(Update.class) @RequestBody UserDto userDto) {
+    public Object updateUser(@PathVariable("userId") long userId,
+                             @Validated(Update.class) @RequestBody UserDto userDto) {
         log.info("Update UserDto {}, userId={}", userDto, userId);
         return userClient.updateUser(userId, userDto);
     }
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BaseClientTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private static final FakeShareItServer SERVER = new FakeShareItServer();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::getUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SERVER.reset();
+        responseCache.invalidate(List.of(), null);
+    }
+
+    @Test
+    void testRepliesWithoutAsyncDispatch() throws Exception {
+        byte[] body = "{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}".getBytes(StandardCharsets.UTF_8);
+        SERVER.respond("/users/1", body);
+
+        mvc.perform(get("/users/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void testStreamsLargeBody() throws Exception {
+        byte[] body = ("[{\"id\":1,\"name\":\"" + "a".repeat(512 * 1024) + "\",\"email\":\"user@user.com\"}]")
+                .getBytes(StandardCharsets.UTF_8);
+        SERVER.respond("/users/", body);
+
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(content().bytes(body));
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void testSendsRequestBody() throws Exception {
+        byte[] body = "{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}".getBytes(StandardCharsets.UTF_8);
+        SERVER.respond("/users", body);
+
+        mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"user\",\"email\":\"user@user.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+        assertEquals("{\"id\":null,\"name\":\"user\",\"email\":\"user@user.com\"}", SERVER.lastRequestBody("/users"));
+    }
+
+    @Test
+    void testRepliesNotModifiedForCachedETag() throws Exception {
+        SERVER.respond("/items/1", "{\"id\":1,\"name\":\"item\"}".getBytes(StandardCharsets.UTF_8));
+
+        String etag = mvc.perform(get("/items/1").header(USER_ID_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        assertEquals(1, SERVER.hits("/items/1"));
+    }
+
+    @Test
+    void testMutationInvalidatesCachedResource() throws Exception {
+        SERVER.respond("/items/1", "{\"id\":1,\"name\":\"item\"}".getBytes(StandardCharsets.UTF_8));
+        SERVER.respond("/items/2", "{\"id\":2,\"name\":\"item\"}".getBytes(StandardCharsets.UTF_8));
+        SERVER.respond("/items/1/comment", "{\"id\":1,\"text\":\"comment\"}".getBytes(StandardCharsets.UTF_8));
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1));
+        mvc.perform(get("/items/2").header(USER_ID_HEADER, 1));
+
+        mvc.perform(post("/items/1/comment")
+                        .header(USER_ID_HEADER, 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"comment\"}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1));
+        mvc.perform(get("/items/2").header(USER_ID_HEADER, 1));
+
+        assertEquals(2, SERVER.hits("/items/1"));
+        assertEquals(1, SERVER.hits("/items/2"));
+    }
+
+    @Test
+    void testItemUpdateInvalidatesBookingsOfOtherUsers() throws Exception {
+        SERVER.respond("/bookings/5", "{\"id\":5,\"item\":{\"id\":1,\"name\":\"item\"}}".getBytes(StandardCharsets.UTF_8));
+        SERVER.respond("/items/1", "{\"id\":1,\"name\":\"drill\"}".getBytes(StandardCharsets.UTF_8));
+        mvc.perform(get("/bookings/5").header(USER_ID_HEADER, 2));
+
+        mvc.perform(patch("/items/1")
+                        .header(USER_ID_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"drill\"}"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/5").header(USER_ID_HEADER, 2));
+
+        assertEquals(2, SERVER.hits("/bookings/5"));
+    }
+
+    @Test
+    void testRelaysNoContentWithoutContentType() throws Exception {
+        SERVER.respond("/users/3", 204, null, new byte[0]);
+
+        mvc.perform(delete("/users/3"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_TYPE))
+                .andExpect(content().bytes(new byte[0]));
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void testRelaysEmptyOkBodyWithoutContentType() throws Exception {
+        SERVER.respond("/users/3", 200, null, new byte[0]);
+
+        mvc.perform(get("/users/3"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_TYPE))
+                .andExpect(content().bytes(new byte[0]));
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void testRelaysErrorStatus() throws Exception {
+        mvc.perform(get("/users/2"))
+                .andExpect(status().isNotFound());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FakeShareItServer {
+    private final HttpServer server;
+
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    private final Map<String, String> requestBodies = new ConcurrentHashMap<>();
+
+    public FakeShareItServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void respond(String path, byte[] body) {
+        respond(path, 200, "application/json", body);
+    }
+
+    public void respond(String path, int status, @Nullable String contentType, byte[] body) {
+        responses.put(path, new Response(status, contentType, body));
+    }
+
+    public int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    public String lastRequestBody(String path) {
+        return requestBodies.get(path);
+    }
+
+    public void reset() {
+        responses.clear();
+        hits.clear();
+        requestBodies.clear();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+        requestBodies.put(path, new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Response response = responses.get(path);
+        if (response == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        if (response.contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", response.contentType);
+        }
+        if (response.body.length == 0) {
+            exchange.sendResponseHeaders(response.status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response.body);
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        Response(int status, @Nullable String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("reactive")
+class ReactiveBaseClientTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private static final FakeShareItServer SERVER = new FakeShareItServer();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::getUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SERVER.reset();
+        responseCache.invalidate(List.of(), null);
+    }
+
+    @Test
+    void testRelaysBodyLargerThanDefaultCodecLimit() throws Exception {
+        byte[] body = ("[{\"id\":1,\"name\":\"" + "a".repeat(512 * 1024) + "\",\"email\":\"user@user.com\"}]")
+                .getBytes(StandardCharsets.UTF_8);
+        SERVER.respond("/users/", body);
+
+        MvcResult result = mvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+    }
+
+    @Test
+    void testRepliesNotModifiedForCachedETag() throws Exception {
+        SERVER.respond("/items/1", "{\"id\":1,\"name\":\"item\"}".getBytes(StandardCharsets.UTF_8));
+        MvcResult result = mvc.perform(get("/items/1").header(USER_ID_HEADER, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String etag = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/1").header(USER_ID_HEADER, 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotModified());
+        assertEquals(1, SERVER.hits("/items/1"));
+    }
+}
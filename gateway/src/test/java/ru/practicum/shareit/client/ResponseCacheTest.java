@@ -0,0 +1,103 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+    private final ResponseCache cache = new ResponseCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void testPutAddsETag() {
+        ResponseEntity<Object> cached = put("/items/1", 1);
+
+        assertEquals("\"" + DigestUtils.md5DigestAsHex(body("/items/1")) + "\"",
+                cached.getHeaders().getETag());
+        assertNotNull(cache.get("/items/1", 1));
+    }
+
+    @Test
+    void testDoesNotCacheErrors() {
+        cache.put("/items/1", 1, cache.generation("/items/1", 1),
+                ResponseEntity.status(HttpStatus.NOT_FOUND).body(body("/items/1")));
+
+        assertNull(cache.get("/items/1", 1));
+    }
+
+    @Test
+    void testSkipsPutLoadedBeforeInvalidation() {
+        long generation = cache.generation("/items/1", 1);
+        cache.invalidate(List.of("/items/1"), 2L);
+
+        ResponseEntity<Object> response = cache.put("/items/1", 1, generation, ResponseEntity.ok(body("/items/1")));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(cache.get("/items/1", 1));
+    }
+
+    @Test
+    void testInvalidatesResourceForAllUsers() {
+        put("/items/1", 1);
+        put("/items/1", 3);
+        put("/items/2", 1);
+
+        cache.invalidate(List.of("/items/1"), 2L);
+
+        assertNull(cache.get("/items/1", 1));
+        assertNull(cache.get("/items/1", 3));
+        assertNotNull(cache.get("/items/2", 1));
+    }
+
+    @Test
+    void testInvalidatesEntriesOfActingUser() {
+        put("/items/1", 1);
+        put("/bookings/5", 1);
+        put("/items/1", 3);
+
+        cache.invalidate(List.of("/items/9"), 1L);
+
+        assertNull(cache.get("/items/1", 1));
+        assertNull(cache.get("/bookings/5", 1));
+        assertNotNull(cache.get("/items/1", 3));
+    }
+
+    @Test
+    void testItemUpdateInvalidatesBookingsOfOtherUsers() {
+        put("/bookings/5", 2);
+
+        cache.invalidate(List.of("/items/3", ResponseCache.ALL_RESOURCES), 1L);
+
+        assertNull(cache.get("/bookings/5", 2));
+    }
+
+    @Test
+    void testInvalidatesEverythingWithoutUser() {
+        put("/items/1", 1);
+        put("/requests/2", 3);
+        long generation = cache.generation("/items/3", 4);
+
+        cache.invalidate(List.of("/users/7"), null);
+        cache.put("/items/3", 4, generation, ResponseEntity.ok(body("/items/3")));
+
+        assertNull(cache.get("/items/1", 1));
+        assertNull(cache.get("/requests/2", 3));
+        assertNull(cache.get("/items/3", 4));
+    }
+
+    private ResponseEntity<Object> put(String resource, long userId) {
+        return cache.put(resource, userId, cache.generation(resource, userId), ResponseEntity.ok(body(resource)));
+    }
+
+    private static byte[] body(String resource) {
+        return ("{\"path\":\"" + resource + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
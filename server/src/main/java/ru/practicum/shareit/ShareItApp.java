@@ -2,9 +2,12 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 
 
 @SpringBootApplication
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 public class ShareItApp {
 
     public static void main(String[] args) {
@@ -52,7 +52,11 @@ public class BookingController {
     public List<BookingFullDto> getUserBookings(@RequestHeader(USER_ID_HEADER) int userId,
                                                 @RequestParam(defaultValue = "ALL") String state,
                                                 @RequestParam(defaultValue = "0") Integer from,
-                                                @RequestParam(defaultValue = "10") Integer size) {
+                                                @RequestParam(defaultValue = "10") Integer size,
+                                                @RequestParam(required = false) String after) {
+        if (after != null) {
+            return bookingService.getBookingsByBookerIdAfter(userId, state, after, size);
+        }
         return bookingService.getBookingsByBookerId(userId, state, from, size);
     }
 
@@ -60,7 +64,11 @@ public class BookingController {
     public List<BookingFullDto> getOwnerBookings(@RequestHeader(USER_ID_HEADER) int userId,
                                                  @RequestParam(defaultValue = "ALL") String state,
                                                  @RequestParam(defaultValue = "0") Integer from,
-                                                 @RequestParam(defaultValue = "10") Integer size) {
+                                                 @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String after) {
+        if (after != null) {
+            return bookingService.getAllBookingsForItemsByOwnerIdAfter(userId, state, after, size);
+        }
         return bookingService.getAllBookingsForItemsByOwnerId(userId, state, from, size);
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingListView {
+    Integer getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Status getStatus();
+
+    Integer getItemId();
+
+    String getItemName();
+
+    Integer getBookerId();
+
+    String getBookerName();
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingQuery {
+    private BookingRole role;
+
+    private int userId;
+
+    private State state;
+
+    private LocalDateTime now;
+
+    private KeysetCursor after;
+
+    private int from;
+
+    private int size;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingShortView {
+    Integer getId();
+
+    Integer getBookerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Integer getItemId();
+
+    Boolean getPast();
+}
@@ -3,7 +3,9 @@ package ru.practicum.shareit.booking.model;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingListView;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserShortDto;
@@ -20,6 +22,15 @@ public class BookingMapper {
                 .build();
     }
 
+    public BookingShortDto bookingShortDto(BookingShortView booking) {
+        return BookingShortDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+
     public Booking toBooking(BookingDto bookingDto) {
         Item item = Item.builder()
                 .id(bookingDto.getItemId())
@@ -54,4 +65,15 @@ public class BookingMapper {
                 .status(booking.getStatus())
                 .build();
     }
+
+    public BookingFullDto toBookingFullDto(BookingListView booking) {
+        return BookingFullDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(new ItemShortDto(booking.getItemId(), booking.getItemName()))
+                .booker(new UserShortDto(booking.getBookerId(), booking.getBookerName()))
+                .status(booking.getStatus())
+                .build();
+    }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class BookingPeriodConstraint {
+
+    static final String CONSTRAINT_NAME = "bookings_item_id_period_excl";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void apply() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        if (!exists("SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'btree_gist')")) {
+            log.warn("Расширение btree_gist не установлено, ограничение {} не создано: пересечения бронирований "
+                    + "проверяются только приложением (см. db/postgres/btree_gist.sql)", CONSTRAINT_NAME);
+            return;
+        }
+        if (exists("SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + CONSTRAINT_NAME + "')")) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("ALTER TABLE bookings ADD CONSTRAINT " + CONSTRAINT_NAME
+                    + " EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)"
+                    + " WHERE (status IN ('WAITING', 'APPROVED'))");
+            log.info("Создано ограничение {}", CONSTRAINT_NAME);
+        } catch (DataAccessException e) {
+            log.error("Не удалось создать ограничение {}", CONSTRAINT_NAME, e);
+        }
+    }
+
+    private boolean exists(String sql) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class));
+    }
+}
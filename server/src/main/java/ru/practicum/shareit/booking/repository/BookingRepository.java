@@ -1,21 +1,54 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-
-    boolean existsBookingByIdAndStatusNot(int bookingId, Status status);
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsOverlappingBooking(@Param("itemId") int itemId,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end,
+                                     @Param("statuses") Collection<Status> statuses);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses")
+    List<BookingIntervalView> findIntervalsByItemId(@Param("itemId") int itemId,
+                                                    @Param("statuses") Collection<Status> statuses);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :to and b.end > :from " +
+            "order by b.start")
+    List<BookingIntervalView> findIntervalsByItemIdAndPeriod(@Param("itemId") int itemId,
+                                                             @Param("statuses") Collection<Status> statuses,
+                                                             @Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :newStatus " +
+            "where b.id = :bookingId and b.status = :currentStatus " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusByIdAndOwnerId(@Param("bookingId") int bookingId,
+                                   @Param("ownerId") int ownerId,
+                                   @Param("currentStatus") Status currentStatus,
+                                   @Param("newStatus") Status newStatus);
+
+    @Query("select b from Booking b join fetch b.item i join fetch i.owner join fetch b.booker where b.id = :bookingId")
+    Optional<Booking> findWithItemAndBookerById(@Param("bookingId") int bookingId);
 
     boolean existsBookingByBookerIdAndItemIdAndStatusAndStartBefore(
             int userId,
@@ -24,48 +57,18 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             LocalDateTime currentTime
     );
 
-    Page<Booking> findAllByBookerIdOrderByStartDesc(@Param("userId") int userId, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(int userId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            int userId,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable
-    );
-
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(int userId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(int userId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdOrderByStartDesc(int userId, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndStatusOrderByStartDesc(int userId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            int userId,
-            LocalDateTime start,
-            LocalDateTime end,
-            Pageable pageable
-    );
-
-    Page<Booking> findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(int userId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(int userId, LocalDateTime start, Pageable pageable);
-
-    @Query("select b from Booking b where b.item.id = :itemId and b.item.owner.id = :bookerId and b.status <> :status and b.start < :currentTime order by b.start desc")
-    List<Booking> findLastBookingByOwnerId(
-            @Param("itemId") int itemId,
-            @Param("bookerId") int bookerId,
-            @Param("status") Status status,
-            @Param("currentTime") LocalDateTime currentTime
-    );
-
-    @Query("select b from Booking b where b.item.id = :itemId and b.item.owner.id = :bookerId and b.status <> :status and b.start > :currentTime order by b.start")
-    List<Booking> findNextBookingByOwnerId(@Param("itemId") int itemId,
-                                           @Param("bookerId") int bookerId,
-                                           @Param("status") Status status,
-                                           @Param("currentTime") LocalDateTime currentTime
+    @Query(value = "SELECT ranked.id AS \"id\", ranked.booker_id AS \"bookerId\", ranked.start_date AS \"start\", " +
+            "ranked.end_date AS \"end\", ranked.item_id AS \"itemId\", ranked.past AS \"past\" " +
+            "FROM (SELECT b.id, b.booker_id, b.start_date, b.end_date, b.item_id, b.start_date < :currentTime AS past, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date < :currentTime " +
+            "ORDER BY CASE WHEN b.start_date < :currentTime THEN b.start_date END DESC, b.start_date) AS rn " +
+            "FROM bookings b JOIN items i ON i.id = b.item_id " +
+            "WHERE b.item_id IN (:itemIds) AND i.owner_id = :ownerId AND b.status <> :status " +
+            "AND b.start_date <> :currentTime) ranked " +
+            "WHERE ranked.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastAndNextBookingsByItemIds(@Param("itemIds") Collection<Integer> itemIds,
+                                                            @Param("ownerId") int ownerId,
+                                                            @Param("status") String status,
+                                                            @Param("currentTime") LocalDateTime currentTime
     );
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingListView;
+import ru.practicum.shareit.booking.dto.BookingQuery;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingListView> findBookings(BookingQuery query);
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.dto.BookingListView;
+import ru.practicum.shareit.booking.dto.BookingQuery;
+import ru.practicum.shareit.booking.dto.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.UnsupportedStatusException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingListView> findBookings(BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Booking> booking = criteria.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<Integer> id = booking.get("id");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Map<String, Object> parameters = new HashMap<>();
+        List<Predicate> predicates = new ArrayList<>();
+
+        ParameterExpression<Integer> userId = parameter(cb, parameters, Integer.class, "userId", query.getUserId());
+        switch (query.getRole()) {
+            case BOOKER:
+                predicates.add(cb.equal(booker.get("id"), userId));
+                break;
+            case OWNER:
+                predicates.add(cb.equal(item.get("owner").get("id"), userId));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown role: " + query.getRole());
+        }
+
+        switch (query.getState()) {
+            case ALL:
+                break;
+            case CURRENT:
+                ParameterExpression<LocalDateTime> now = parameter(cb, parameters, LocalDateTime.class, "now",
+                        query.getNow());
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, parameter(cb, parameters, LocalDateTime.class, "now", query.getNow())));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start,
+                        parameter(cb, parameters, LocalDateTime.class, "now", query.getNow())));
+                break;
+            case WAITING:
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"),
+                        parameter(cb, parameters, Status.class, "status", Status.valueOf(query.getState().name()))));
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+
+        KeysetCursor after = query.getAfter();
+        if (after != null) {
+            ParameterExpression<LocalDateTime> afterStart = parameter(cb, parameters, LocalDateTime.class,
+                    "afterStart", after.getTimestamp());
+            ParameterExpression<Integer> afterId = parameter(cb, parameters, Integer.class, "afterId", after.getId());
+            predicates.add(cb.or(
+                    cb.lessThan(start, afterStart),
+                    cb.and(cb.equal(start, afterStart), cb.lessThan(id, afterId))));
+        }
+
+        criteria.multiselect(id, start, end, booking.get("status"), item.get("id"), item.get("name"),
+                        booker.get("id"), booker.get("name"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteria)
+                .setMaxResults(query.getSize());
+        int offset = query.getFrom() / query.getSize() * query.getSize();
+        if (after == null && offset > 0) {
+            typedQuery.setFirstResult(offset);
+        }
+        parameters.forEach(typedQuery::setParameter);
+
+        return typedQuery.getResultList().stream()
+                .map(BookingRepositoryCustomImpl::toView)
+                .collect(Collectors.toList());
+    }
+
+    private static <T> ParameterExpression<T> parameter(CriteriaBuilder cb, Map<String, Object> parameters,
+                                                        Class<T> type, String name, T value) {
+        parameters.put(name, value);
+        return cb.parameter(type, name);
+    }
+
+    private static BookingListView toView(Tuple tuple) {
+        return new BookingRow(tuple.get(0, Integer.class), tuple.get(1, LocalDateTime.class),
+                tuple.get(2, LocalDateTime.class), tuple.get(3, Status.class), tuple.get(4, Integer.class),
+                tuple.get(5, String.class), tuple.get(6, Integer.class), tuple.get(7, String.class));
+    }
+
+    @Value
+    private static class BookingRow implements BookingListView {
+        Integer id;
+
+        LocalDateTime start;
+
+        LocalDateTime end;
+
+        Status status;
+
+        Integer itemId;
+
+        String itemName;
+
+        Integer bookerId;
+
+        String bookerName;
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.BusyIntervalDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+@RequiredArgsConstructor
+public class AvailabilityCalendar {
+
+    public static final String AVAILABILITY_CACHE = "availability";
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final BookingRepository bookingRepository;
+
+    private final CacheManager cacheManager;
+
+    public List<BusyIntervalDto> getBusyIntervals(int itemId, LocalDateTime from, LocalDateTime to) {
+        Cache cache = cache();
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate lastDay = to.minusNanos(1).toLocalDate();
+        TreeMap<LocalDate, List<BusyIntervalDto>> days = new TreeMap<>();
+        TreeMap<LocalDate, List<BusyIntervalDto>> missingDays = new TreeMap<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            @SuppressWarnings("unchecked")
+            List<BusyIntervalDto> cached = cache.get(key(itemId, day), List.class);
+            if (cached == null) {
+                missingDays.put(day, new ArrayList<>());
+            } else {
+                days.put(day, cached);
+            }
+        }
+        if (!missingDays.isEmpty()) {
+            long generation = generations.get(stripe(itemId));
+            loadDays(itemId, missingDays);
+            for (Map.Entry<LocalDate, List<BusyIntervalDto>> day : missingDays.entrySet()) {
+                List<BusyIntervalDto> merged = merge(day.getValue());
+                days.put(day.getKey(), merged);
+                cache.put(key(itemId, day.getKey()), merged);
+            }
+            if (generations.get(stripe(itemId)) != generation) {
+                for (LocalDate day : missingDays.keySet()) {
+                    cache.evict(key(itemId, day));
+                }
+            }
+        }
+
+        List<BusyIntervalDto> busy = new ArrayList<>();
+        for (List<BusyIntervalDto> dayIntervals : days.values()) {
+            for (BusyIntervalDto interval : dayIntervals) {
+                addClipped(busy, interval.getStart(), interval.getEnd(), from, to);
+            }
+        }
+        return merge(busy);
+    }
+
+    public void onBookingChanged(int itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(itemId, start, end);
+                }
+            });
+        } else {
+            evict(itemId, start, end);
+        }
+    }
+
+    private void loadDays(int itemId, TreeMap<LocalDate, List<BusyIntervalDto>> missingDays) {
+        LocalDate firstMissing = missingDays.firstKey();
+        LocalDate lastMissing = missingDays.lastKey();
+        List<BookingIntervalView> bookings = bookingRepository.findIntervalsByItemIdAndPeriod(itemId,
+                BookingIntervalIndex.BLOCKING_STATUSES, firstMissing.atStartOfDay(), lastMissing.plusDays(1).atStartOfDay());
+        for (BookingIntervalView booking : bookings) {
+            LocalDate day = max(booking.getStart().toLocalDate(), firstMissing);
+            LocalDate bookingLastDay = booking.getEnd().minusNanos(1).toLocalDate();
+            for (; !day.isAfter(bookingLastDay) && !day.isAfter(lastMissing); day = day.plusDays(1)) {
+                List<BusyIntervalDto> dayIntervals = missingDays.get(day);
+                if (dayIntervals != null) {
+                    addClipped(dayIntervals, booking.getStart(), booking.getEnd(),
+                            day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                }
+            }
+        }
+    }
+
+    private void evict(int itemId, LocalDateTime start, LocalDateTime end) {
+        generations.incrementAndGet(stripe(itemId));
+        Cache cache = cache();
+        LocalDate lastDay = end.minusNanos(1).toLocalDate();
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            cache.evict(key(itemId, day));
+        }
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(AVAILABILITY_CACHE),
+                "Кэш " + AVAILABILITY_CACHE + " не настроен");
+    }
+
+    private static int stripe(int itemId) {
+        return Math.floorMod(itemId, GENERATION_STRIPES);
+    }
+
+    private static String key(int itemId, LocalDate day) {
+        return itemId + ":" + day;
+    }
+
+    private static void addClipped(List<BusyIntervalDto> intervals, LocalDateTime start, LocalDateTime end,
+                                   LocalDateTime from, LocalDateTime to) {
+        LocalDateTime clippedStart = start.isBefore(from) ? from : start;
+        LocalDateTime clippedEnd = end.isAfter(to) ? to : end;
+        if (clippedStart.isBefore(clippedEnd)) {
+            intervals.add(new BusyIntervalDto(clippedStart, clippedEnd));
+        }
+    }
+
+    private static List<BusyIntervalDto> merge(List<BusyIntervalDto> intervals) {
+        List<BusyIntervalDto> sorted = new ArrayList<>(intervals);
+        sorted.sort((first, second) -> first.getStart().compareTo(second.getStart()));
+        ArrayList<BusyIntervalDto> merged = new ArrayList<>();
+        for (BusyIntervalDto interval : sorted) {
+            BusyIntervalDto last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !interval.getStart().isAfter(last.getEnd())) {
+                if (interval.getEnd().isAfter(last.getEnd())) {
+                    merged.set(merged.size() - 1, new BusyIntervalDto(last.getStart(), interval.getEnd()));
+                }
+            } else {
+                merged.add(new BusyIntervalDto(interval.getStart(), interval.getEnd()));
+            }
+        }
+        return merged;
+    }
+
+    private static LocalDate max(LocalDate first, LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+
+    public static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Integer, ItemIntervals> intervalsByItem;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.intervals.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.booking.intervals.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.intervalsByItem = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean isFree(int itemId, LocalDateTime start, LocalDateTime end) {
+        if (intervals(itemId).isFree(toEpochMicros(start), toEpochMicros(end))) {
+            return true;
+        }
+        if (bookingRepository.existsOverlappingBooking(itemId, start, end, BLOCKING_STATUSES)) {
+            return false;
+        }
+        log.debug("Индекс интервалов вещи {} устарел, перезагрузка из базы данных", itemId);
+        intervalsByItem.invalidate(itemId);
+        return true;
+    }
+
+    public void onBookingCreated(int itemId, int bookingId, LocalDateTime start, LocalDateTime end) {
+        long startMicros = toEpochMicros(start);
+        long endMicros = toEpochMicros(end);
+        afterCommit(() -> {
+            ItemIntervals intervals = intervalsByItem.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.add(bookingId, startMicros, endMicros);
+            }
+        });
+    }
+
+    public void onBookingReleased(int itemId, int bookingId) {
+        afterCommit(() -> {
+            ItemIntervals intervals = intervalsByItem.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.remove(bookingId);
+            }
+        });
+    }
+
+    private ItemIntervals intervals(int itemId) {
+        return intervalsByItem.get(itemId, this::load);
+    }
+
+    private ItemIntervals load(int itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        for (BookingIntervalView booking : bookingRepository.findIntervalsByItemId(itemId, BLOCKING_STATUSES)) {
+            intervals.add(booking.getId(), toEpochMicros(booking.getStart()), toEpochMicros(booking.getEnd()));
+        }
+        log.debug("Загружено {} бронирований вещи {} в индекс интервалов", intervals.size(), itemId);
+        return intervals;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static long toEpochMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+    }
+}
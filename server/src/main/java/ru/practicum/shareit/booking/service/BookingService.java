@@ -16,4 +16,8 @@ public interface BookingService {
     List<BookingFullDto> getBookingsByBookerId(int bookerId, String state,int from, int size);
 
     List<BookingFullDto> getAllBookingsForItemsByOwnerId(int ownerId, String state,int from, int size);
+
+    List<BookingFullDto> getBookingsByBookerIdAfter(int bookerId, String state, String after, int size);
+
+    List<BookingFullDto> getAllBookingsForItemsByOwnerIdAfter(int ownerId, String state, String after, int size);
 }
@@ -2,23 +2,24 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingQuery;
+import ru.practicum.shareit.booking.dto.BookingRole;
 import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
@@ -39,6 +40,12 @@ public class BookingServiceImpl implements BookingService {
 
     private final ItemService itemService;
 
+    private final ItemLocks itemLocks;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final AvailabilityCalendar availabilityCalendar;
+
     @Transactional
     @Override
     public BookingFullDto createBooking(int userId, Booking booking) {
@@ -58,10 +65,14 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Бронирование невозможно. Владелец вещи и пользователь совпадают");
         }
         checkAvailabilityItem(item);
+        itemLocks.lockUntilTransactionCompletes(itemId);
+        checkBookingOverlap(itemId, booking);
         booking.setStatus(Status.WAITING);
         booking.setItem(item);
         booking.setBooker(user);
         Booking savedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.onBookingCreated(itemId, savedBooking.getId(), savedBooking.getStart(), savedBooking.getEnd());
+        availabilityCalendar.onBookingChanged(itemId, savedBooking.getStart(), savedBooking.getEnd());
 
         return BookingMapper.toBookingFullDto(savedBooking);
     }
@@ -70,25 +81,19 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingFullDto updateBookingStatus(int userId, int bookingId, boolean approved) {
         log.info("Пришел запрос на обновление пользователем {} брони {}", userId, bookingId);
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new NotFoundException("Бронирования с таким id не существует: " + bookingId));
-
-        if (bookingRepository.existsBookingByIdAndStatusNot(bookingId, Status.WAITING)) {
-            Status status = bookingRepository.findById(bookingId).get().getStatus();
-            String errorMessage = String.format("Изменение статуса бронирования запрещено, потому что у него статус \"%s\"", status);
-            log.error(errorMessage);
-            throw new ValidationException(errorMessage);
+        Status newStatus = approved ? Status.APPROVED : Status.REJECTED;
+        int updated = bookingRepository.updateStatusByIdAndOwnerId(bookingId, userId, Status.WAITING, newStatus);
+        if (updated == 0) {
+            throwStatusUpdateError(userId, bookingId);
         }
-
-        if (!Objects.equals(userId, booking.getItem().getOwner().getId())) {
-            throw new NotFoundException("Пользователь не является владельцем вещи.");
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() ->
+                new NotFoundException("Бронирования с таким id не существует: " + bookingId));
+        if (!approved) {
+            bookingIntervalIndex.onBookingReleased(booking.getItem().getId(), bookingId);
         }
+        availabilityCalendar.onBookingChanged(booking.getItem().getId(), booking.getStart(), booking.getEnd());
 
-        booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-
-        Booking updatedBooking = bookingRepository.save(booking);
-
-        return BookingMapper.toBookingFullDto(updatedBooking);
+        return BookingMapper.toBookingFullDto(booking);
     }
 
     @Override
@@ -110,74 +115,69 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingFullDto> getBookingsByBookerId(int bookerId, String state, int from, int size) {
         checkSize(size, from);
         log.info("Пришел запрос получение списка всех бронирований текущего пользователя {} брони", bookerId);
-        userService.getUserById(bookerId);
-        Pageable pageable = PageRequest.of(from / size, size);
-        State stateBooking = State.valueOf(state);
-
-        Page<Booking> bookingsPage;
-
-        switch (stateBooking) {
-            case ALL:
-                bookingsPage = bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageable);
-                break;
-            case CURRENT:
-                bookingsPage = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        bookerId, LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                bookingsPage = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(bookerId, LocalDateTime.now(), pageable);
-                break;
-            case FUTURE:
-                bookingsPage = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(bookerId, LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                bookingsPage = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookingsPage = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(bookerId, Status.REJECTED, pageable);
-                break;
-            default:
-                log.error("Пришел запрос с UNSUPPORTED_STATUS");
-                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-
-        return bookingsPage.getContent().stream()
-                .map(BookingMapper::toBookingFullDto)
-                .collect(Collectors.toList());
+        return findBookings(BookingRole.BOOKER, bookerId, state, null, from, size);
     }
 
-
     @Override
     public List<BookingFullDto> getAllBookingsForItemsByOwnerId(int ownerId, String state, int from, int size) {
         checkSize(size, from);
         log.info("Пришел запрос Получение списка бронирований для всех вещей текущего пользователя {} ", ownerId);
-        userService.getUserById(ownerId);
-        Pageable pageable = PageRequest.of(from / size, size);
+        return findBookings(BookingRole.OWNER, ownerId, state, null, from, size);
+    }
+
+    @Override
+    public List<BookingFullDto> getBookingsByBookerIdAfter(int bookerId, String state, String after, int size) {
+        checkSize(size, 0);
+        log.info("Пришел запрос получение списка бронирований пользователя {} после курсора {}", bookerId, after);
+        return findBookings(BookingRole.BOOKER, bookerId, state, KeysetCursor.parse(after), 0, size);
+    }
+
+    @Override
+    public List<BookingFullDto> getAllBookingsForItemsByOwnerIdAfter(int ownerId, String state, String after, int size) {
+        checkSize(size, 0);
+        log.info("Пришел запрос Получение списка бронирований для вещей пользователя {} после курсора {}", ownerId, after);
+        return findBookings(BookingRole.OWNER, ownerId, state, KeysetCursor.parse(after), 0, size);
+    }
+
+    private List<BookingFullDto> findBookings(BookingRole role, int userId, String state, KeysetCursor after,
+                                              int from, int size) {
+        userService.getUserById(userId);
         State stateBooking = State.valueOf(state);
-        switch (stateBooking) {
-            case ALL:
-                return bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(ownerId, pageable).stream()
-                        .map(BookingMapper::toBookingFullDto).collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        ownerId, LocalDateTime.now(), LocalDateTime.now(), pageable
-                ).stream().map(BookingMapper::toBookingFullDto).collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingFullDto).collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(ownerId, LocalDateTime.now(), pageable).stream()
-                        .map(BookingMapper::toBookingFullDto).collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(ownerId, Status.WAITING, pageable).stream()
-                        .map(BookingMapper::toBookingFullDto).collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(ownerId, Status.REJECTED, pageable).stream()
-                        .map(BookingMapper::toBookingFullDto).collect(Collectors.toList());
-            default:
-                log.error("Пришел запрос с UNSUPPORTED_STATUS");
-                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        if (stateBooking == State.UNSUPPORTED_STATUS) {
+            log.error("Пришел запрос с UNSUPPORTED_STATUS");
+            throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(stateBooking)
+                .now(LocalDateTime.now())
+                .after(after)
+                .from(from)
+                .size(size)
+                .build();
+
+        return bookingRepository.findBookings(query).stream()
+                .map(BookingMapper::toBookingFullDto)
+                .collect(Collectors.toList());
+    }
+
+    private void throwStatusUpdateError(int userId, int bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+                new NotFoundException("Бронирования с таким id не существует: " + bookingId));
+
+        if (booking.getStatus() != Status.WAITING) {
+            String errorMessage = String.format("Изменение статуса бронирования запрещено, потому что у него статус \"%s\"",
+                    booking.getStatus());
+            log.error(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+
+        if (!Objects.equals(userId, booking.getItem().getOwner().getId())) {
+            throw new NotFoundException("Пользователь не является владельцем вещи.");
         }
+
+        throw new ValidationException("Не удалось изменить статус бронирования " + bookingId);
     }
 
     private void checkAvailabilityItem(Item item) {
@@ -187,6 +187,13 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void checkBookingOverlap(int itemId, Booking booking) {
+        if (!bookingIntervalIndex.isFree(itemId, booking.getStart(), booking.getEnd())) {
+            log.error("Вещь с ID {} уже забронирована на период с {} по {}", itemId, booking.getStart(), booking.getEnd());
+            throw new ConflictException("Вещь с ID " + itemId + " уже забронирована на этот период");
+        }
+    }
+
     private void checkDateEndIsAfterStart(Booking booking) {
         LocalDateTime start = booking.getStart();
         LocalDateTime end = booking.getEnd();
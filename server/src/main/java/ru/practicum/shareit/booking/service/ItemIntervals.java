@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.Arrays;
+
+public class ItemIntervals {
+
+    private int[] ids = new int[4];
+
+    private long[] starts = new long[4];
+
+    private long[] ends = new long[4];
+
+    private long[] maxEnds = new long[4];
+
+    private int size;
+
+    public synchronized void add(int id, long start, long end) {
+        removeAt(indexOf(id));
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+        }
+        int position = countStartsBefore(start);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        ids[position] = id;
+        starts[position] = start;
+        ends[position] = end;
+        size++;
+        updateMaxEnds(position);
+    }
+
+    public synchronized void remove(int id) {
+        removeAt(indexOf(id));
+    }
+
+    public synchronized boolean isFree(long start, long end) {
+        int count = countStartsBefore(end);
+        return count == 0 || maxEnds[count - 1] <= start;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int countStartsBefore(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int position) {
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(starts, position + 1, starts, position, size - position - 1);
+        System.arraycopy(ends, position + 1, ends, position, size - position - 1);
+        size--;
+        updateMaxEnds(position);
+    }
+
+    private void updateMaxEnds(int from) {
+        for (int i = from; i < size; i++) {
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+}
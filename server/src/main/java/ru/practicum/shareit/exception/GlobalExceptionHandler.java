@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -35,6 +36,17 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public ErrorDto handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        log.error("Ошибка конфликт: {}", ex.getMostSpecificCause().getMessage());
+        return ErrorDto.builder()
+                .code(HttpStatus.CONFLICT.value())
+                .message("Нарушено ограничение целостности данных")
+                .build();
+    }
+
     @ExceptionHandler(NotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ResponseBody
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+
+    private Integer itemId;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private List<BusyIntervalDto> busy;
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.model;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
+import ru.practicum.shareit.item.dto.CommentView;
 
 @UtilityClass
 public class CommentMapper {
@@ -21,4 +22,13 @@ public class CommentMapper {
                 .created(comment.getCreated())
                 .build();
     }
+
+    public CommentFullDto toCommentFullDto(CommentView comment) {
+        return CommentFullDto.builder()
+                .id(comment.getId())
+                .authorName(comment.getAuthorName())
+                .text(comment.getText())
+                .created(comment.getCreated())
+                .build();
+    }
 }
@@ -1,11 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findAllByItemId(@Param("itemId") int itemId);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT c.id AS \"id\", c.item_id AS \"itemId\", c.text AS \"text\", " +
+            "c.author_name AS \"authorName\", c.created AS \"created\" FROM (" +
+            "SELECT cm.id, cm.item_id, cm.text, u.name AS author_name, cm.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created DESC, cm.id DESC) AS position " +
+            "FROM comments cm JOIN users u ON u.id = cm.author_id WHERE cm.item_id IN (:itemIds)) c " +
+            "WHERE c.position <= :limit ORDER BY c.item_id, c.created, c.id", nativeQuery = true)
+    List<CommentView> findLatestByItemIdIn(@Param("itemIds") Collection<Integer> itemIds, @Param("limit") int limit);
+}
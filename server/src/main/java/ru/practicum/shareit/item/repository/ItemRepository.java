@@ -1,24 +1,39 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemTextView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
-    Page<Item> findAllByOwnerIdOrderById(Integer ownerId, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByOwnerIdOrderById(Integer ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "owner")
     @Query("SELECT i FROM Item i WHERE (i.available = true) " +
-            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    Page<Item> searchItems(@Param("text") String text, Pageable pageable);
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY i.id")
+    List<Item> searchItems(@Param("text") String text, Pageable pageable);
+
+    @Query(value = "SELECT * FROM items i WHERE i.available = true " +
+            "AND to_tsvector('simple', coalesce(i.name, '') || ' ' || coalesce(i.description, '')) " +
+            "@@ to_tsquery('simple', :query) ORDER BY i.id", nativeQuery = true)
+    List<Item> searchItemsFullText(@Param("query") String query, Pageable pageable);
 
     List<Item> findByRequestId(int requestId);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findByRequestIdIn(Collection<Integer> requestIds);
+
+    List<ItemTextView> findAllByIdGreaterThanOrderById(int id, Pageable pageable);
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class ItemSearchTrigramIndexes {
+
+    static final List<String> INDEXES = List.of(
+            "CREATE INDEX if not exists idx_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops)",
+            "CREATE INDEX if not exists idx_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void apply() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class))) {
+            log.warn("Расширение pg_trgm не установлено, поиск вещей по подстроке выполняется без индекса "
+                    + "(см. db/postgres/pg_trgm.sql)");
+            return;
+        }
+        try {
+            INDEXES.forEach(jdbcTemplate::execute);
+        } catch (DataAccessException e) {
+            log.error("Не удалось создать триграммные индексы поиска вещей", e);
+        }
+    }
+}
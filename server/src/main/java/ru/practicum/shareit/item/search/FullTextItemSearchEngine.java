@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            log.info("Поисковый запрос {} не содержит слов", text);
+            return new ArrayList<>();
+        }
+        return itemRepository.searchItemsFullText(query, pageable);
+    }
+
+    static String toTsQuery(String text) {
+        return Arrays.stream(SearchTokenizer.tokenize(text))
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
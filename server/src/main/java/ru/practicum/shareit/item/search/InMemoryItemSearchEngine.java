@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemIndex index = new ItemIndex();
+
+    private final long maxSizeBytes;
+
+    private volatile boolean loaded;
+
+    private volatile boolean overBudget;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${shareit.search.memory.max-bytes:67108864}") long maxSizeBytes) {
+        this.itemRepository = itemRepository;
+        this.maxSizeBytes = maxSizeBytes;
+        Gauge.builder("shareit.search.index.size", index, ItemIndex::estimatedSizeBytes)
+                .baseUnit("bytes")
+                .description("Оценка памяти, занятой индексом поиска вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.items", index, ItemIndex::size)
+                .description("Количество вещей в индексе поиска")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.over-budget", this, engine -> engine.overBudget ? 1 : 0)
+                .description("Индекс поиска отключен из-за превышения лимита памяти")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Заполнение индекса поиска вещей");
+        int lastId = 0;
+        List<ItemTextView> batch;
+        do {
+            batch = itemRepository.findAllByIdGreaterThanOrderById(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ItemTextView item : batch) {
+                putIfAbsent(item.getId(), item.getName(), item.getDescription(),
+                        Boolean.TRUE.equals(item.getAvailable()));
+                lastId = item.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE && !overBudget);
+        loaded = true;
+        log.info("Индекс поиска вещей заполнен: {} вещей, ~{} байт", index.size(), index.estimatedSizeBytes());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (!loaded || overBudget) {
+            return itemRepository.searchItems(text, pageable);
+        }
+        int[] ids = index.search(text, pageable.getOffset(), pageable.getPageSize());
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        return itemRepository.findAllById(Arrays.stream(ids).boxed().collect(Collectors.toList())).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        int id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(id, name, description, available);
+                }
+            });
+        } else {
+            put(id, name, description, available);
+        }
+    }
+
+    boolean isOverBudget() {
+        return overBudget;
+    }
+
+    private void put(int id, String name, String description, boolean available) {
+        if (overBudget) {
+            return;
+        }
+        index.put(id, name, description, available);
+        checkBudget();
+    }
+
+    private void putIfAbsent(int id, String name, String description, boolean available) {
+        if (overBudget) {
+            return;
+        }
+        if (index.putIfAbsent(id, name, description, available)) {
+            checkBudget();
+        }
+    }
+
+    private void checkBudget() {
+        long sizeBytes = index.estimatedSizeBytes();
+        if (sizeBytes > maxSizeBytes) {
+            overBudget = true;
+            index.clear();
+            log.warn("Индекс поиска вещей превысил лимит {} байт (~{} байт), поиск переключен на базу данных "
+                    + "до перезапуска; метрика shareit.search.index.over-budget = 1", maxSizeBytes, sizeBytes);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ItemIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final long GRAM_OVERHEAD_BYTES = 128;
+
+    private static final long ITEM_OVERHEAD_BYTES = 96;
+
+    private final Map<String, Postings> postingsByGram = new HashMap<>();
+
+    private final Map<Integer, ItemText> textByItem = new HashMap<>();
+
+    private final BitSet availableItems = new BitSet();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long estimatedSizeBytes;
+
+    public void put(int itemId, String name, String description, boolean available) {
+        put(itemId, name, description, available, true);
+    }
+
+    public boolean putIfAbsent(int itemId, String name, String description, boolean available) {
+        return put(itemId, name, description, available, false);
+    }
+
+    public void remove(int itemId) {
+        lock.writeLock().lock();
+        try {
+            removeText(itemId);
+            availableItems.clear(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int[] search(String text, long offset, int limit) {
+        if (text == null || limit <= 0) {
+            return new int[0];
+        }
+        String needle = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) availableItems.clone();
+            for (String gram : grams(needle)) {
+                Postings postings = postingsByGram.get(gram);
+                if (postings == null) {
+                    return new int[0];
+                }
+                BitSet matches = new BitSet();
+                postings.addTo(matches);
+                candidates.and(matches);
+                if (candidates.isEmpty()) {
+                    return new int[0];
+                }
+            }
+            int[] page = new int[limit];
+            int found = 0;
+            long skipped = 0;
+            for (int id = candidates.nextSetBit(0); id >= 0 && found < limit; id = candidates.nextSetBit(id + 1)) {
+                if (!textByItem.get(id).contains(needle)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page[found++] = id;
+                }
+            }
+            return Arrays.copyOf(page, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postingsByGram.clear();
+            textByItem.clear();
+            availableItems.clear();
+            estimatedSizeBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return textByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedSizeBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedSizeBytes + availableItems.size() / 8;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean put(int itemId, String name, String description, boolean available, boolean replace) {
+        ItemText text = new ItemText(lowerCase(name), lowerCase(description));
+        Set<String> grams = text.grams();
+        lock.writeLock().lock();
+        try {
+            if (!replace && textByItem.containsKey(itemId)) {
+                return false;
+            }
+            removeText(itemId);
+            for (String gram : grams) {
+                Postings postings = postingsByGram.get(gram);
+                if (postings == null) {
+                    postings = new Postings();
+                    postingsByGram.put(gram, postings);
+                    estimatedSizeBytes += GRAM_OVERHEAD_BYTES;
+                }
+                estimatedSizeBytes -= postings.sizeBytes();
+                postings.add(itemId);
+                estimatedSizeBytes += postings.sizeBytes();
+            }
+            textByItem.put(itemId, text);
+            estimatedSizeBytes += ITEM_OVERHEAD_BYTES + text.sizeBytes();
+            availableItems.set(itemId, available);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeText(int itemId) {
+        ItemText text = textByItem.remove(itemId);
+        if (text == null) {
+            return;
+        }
+        estimatedSizeBytes -= ITEM_OVERHEAD_BYTES + text.sizeBytes();
+        for (String gram : text.grams()) {
+            Postings postings = postingsByGram.get(gram);
+            estimatedSizeBytes -= postings.sizeBytes();
+            postings.remove(itemId);
+            if (postings.isEmpty()) {
+                postingsByGram.remove(gram);
+                estimatedSizeBytes -= GRAM_OVERHEAD_BYTES;
+            } else {
+                estimatedSizeBytes += postings.sizeBytes();
+            }
+        }
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class ItemText {
+        private final String name;
+
+        private final String description;
+
+        ItemText(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean contains(String needle) {
+            return name != null && name.contains(needle) || description != null && description.contains(needle);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            if (name != null) {
+                grams.addAll(ItemIndex.grams(name));
+            }
+            if (description != null) {
+                grams.addAll(ItemIndex.grams(description));
+            }
+            return grams;
+        }
+
+        long sizeBytes() {
+            return 2L * ((name == null ? 0 : name.length()) + (description == null ? 0 : description.length()));
+        }
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[1];
+
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insert(-position - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ids[i]);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long sizeBytes() {
+            return 4L * ids.length;
+        }
+
+        private void insert(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable pageable);
+
+    default void onItemSaved(Item item) {
+    }
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -22,5 +25,9 @@ public interface ItemService {
     CommentFullDto addComment(Integer userId, Integer itemId, CommentDto commentDto);
 
     List<Item> findByRequestId(int requestId);
+
+    List<Item> findByRequestIdIn(Collection<Integer> requestIds);
+
+    ItemAvailabilityDto getItemAvailability(Integer userId, Integer itemId, LocalDateTime from, LocalDateTime to);
 }
 
@@ -2,19 +2,21 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.dto.Status;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
@@ -22,15 +24,20 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -39,6 +46,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+
+    private static final int MAX_ITEM_COMMENTS = 10;
+
     private final ItemRepository itemRepository;
 
     private final UserService userService;
@@ -49,6 +60,10 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final AvailabilityCalendar availabilityCalendar;
+
     @Transactional
     @Override
     public ItemDto addItem(Integer userId, ItemDto itemDto) {
@@ -66,6 +81,7 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(user);
         log.info("Пришел запрос на создание вещи name {}", item.getName());
         itemRepository.save(item);
+        itemSearchEngine.onItemSaved(item);
         return ItemMapper.toItemDto(item);
     }
 
@@ -93,6 +109,7 @@ public class ItemServiceImpl implements ItemService {
             existingItem.setAvailable(item.getAvailable());
         }
 
+        itemSearchEngine.onItemSaved(existingItem);
         log.info("Вещь с ID {} успешно обновлена", itemId);
         return ItemMapper.toItemDto(existingItem);
     }
@@ -104,24 +121,11 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь id " + itemId + " не найдена"));
 
-        List<Booking> lastBooking = bookingRepository.findLastBookingByOwnerId(itemId, userId, Status.REJECTED, currentTime);
-        List<Booking> nextBooking = bookingRepository.findNextBookingByOwnerId(itemId, userId, Status.REJECTED, currentTime);
-        List<Comment> comments = commentRepository.findAllByItemId(itemId);
-        item.setComments(comments);
-
+        List<BookingShortView> bookings = bookingRepository.findLastAndNextBookingsByItemIds(
+                List.of(itemId), userId, Status.REJECTED.name(), currentTime);
         ItemDto itemDto = ItemMapper.toItemDto(item);
-        itemDto.setLastBooking(
-                lastBooking.stream()
-                        .findFirst()
-                        .map(BookingMapper::bookingShortDto)
-                        .orElse(null)
-        );
-        itemDto.setNextBooking(
-                nextBooking.stream()
-                        .findFirst()
-                        .map(BookingMapper::bookingShortDto)
-                        .orElse(null)
-        );
+        setComments(List.of(itemDto));
+        setLastAndNextBookings(List.of(itemDto), bookings);
 
         return itemDto;
     }
@@ -131,23 +135,21 @@ public class ItemServiceImpl implements ItemService {
         log.info("Пришел запрос на получение владельцем {} всех вещей", userId);
         LocalDateTime currentTime = LocalDateTime.now();
         Pageable pageable = PageRequest.of(from, size);
-        Page<Item> items = itemRepository.findAllByOwnerIdOrderById(userId, pageable);
-
-        List<ItemDto> itemDtos = new ArrayList<>();
-        for (Item item : items) {
-            List<Booking> lastBooking = bookingRepository.findLastBookingByOwnerId(item.getId(), userId, Status.REJECTED, currentTime);
-            List<Booking> nextBooking = bookingRepository.findNextBookingByOwnerId(item.getId(), userId, Status.REJECTED, currentTime);
-            item.setComments(commentRepository.findAllByItemId(item.getId()));
-
-            ItemDto itemDto = ItemMapper.toItemDto(item);
-            if (!lastBooking.isEmpty()) {
-                itemDto.setLastBooking(BookingMapper.bookingShortDto(lastBooking.get(0)));
-            }
-            if (!nextBooking.isEmpty()) {
-                itemDto.setNextBooking(BookingMapper.bookingShortDto(nextBooking.get(0)));
-            }
-            itemDtos.add(itemDto);
+        List<Item> items = itemRepository.findAllByOwnerIdOrderById(userId, pageable);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        List<BookingShortView> bookings = bookingRepository.findLastAndNextBookingsByItemIds(
+                itemIds, userId, Status.REJECTED.name(), currentTime);
+        List<ItemDto> itemDtos = items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+        setComments(itemDtos);
+        setLastAndNextBookings(itemDtos, bookings);
 
         return itemDtos;
     }
@@ -176,7 +178,7 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
         Pageable pageable = PageRequest.of(from, size);
-        return itemRepository.searchItems(text, pageable)
+        return itemSearchEngine.search(text, pageable)
                 .stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
@@ -187,6 +189,63 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findByRequestId(requestId);
     }
 
+    @Override
+    public List<Item> findByRequestIdIn(Collection<Integer> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.findByRequestIdIn(requestIds);
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Integer userId, Integer itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Пришел запрос на получение занятости вещи {} с {} по {}", itemId, from, to);
+        userService.getUserById(userId);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Дата начала периода должна быть раньше даты окончания");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            throw new ValidationException("Период не может превышать " + MAX_AVAILABILITY_PERIOD.toDays() + " дней");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id " + itemId + " не найдена");
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(availabilityCalendar.getBusyIntervals(itemId, from, to))
+                .build();
+    }
+
+    private void setComments(List<ItemDto> itemDtos) {
+        List<Integer> itemIds = itemDtos.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<CommentFullDto>> comments = commentRepository.findLatestByItemIdIn(itemIds, MAX_ITEM_COMMENTS)
+                .stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(CommentMapper::toCommentFullDto, Collectors.toList())));
+        for (ItemDto itemDto : itemDtos) {
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+        }
+    }
+
+    private void setLastAndNextBookings(List<ItemDto> itemDtos, List<BookingShortView> bookings) {
+        Map<Integer, ItemDto> itemDtosById = new HashMap<>();
+        for (ItemDto itemDto : itemDtos) {
+            itemDtosById.put(itemDto.getId(), itemDto);
+        }
+        for (BookingShortView booking : bookings) {
+            ItemDto itemDto = itemDtosById.get(booking.getItemId());
+            if (booking.getPast()) {
+                itemDto.setLastBooking(BookingMapper.bookingShortDto(booking));
+            } else {
+                itemDto.setNextBooking(BookingMapper.bookingShortDto(booking));
+            }
+        }
+    }
+
     private void checkBookingByItemAndUserAndStatusAndPast(int userId, int itemId) {
         LocalDateTime currentTime = LocalDateTime.now();
         if (!bookingRepository.existsBookingByBookerIdAndItemIdAndStatusAndStartBefore(userId, itemId, Status.APPROVED, currentTime)) {
@@ -195,4 +254,3 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 }
-
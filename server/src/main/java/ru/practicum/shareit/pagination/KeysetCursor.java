@@ -0,0 +1,31 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+    private static final char SEPARATOR = ',';
+
+    private LocalDateTime timestamp;
+
+    private int id;
+
+    public static KeysetCursor parse(String token) {
+        int separator = token.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new ValidationException("Некорректный курсор: " + token);
+        }
+        try {
+            return new KeysetCursor(LocalDateTime.parse(token.substring(0, separator).trim()),
+                    Integer.parseInt(token.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор: " + token);
+        }
+    }
+}
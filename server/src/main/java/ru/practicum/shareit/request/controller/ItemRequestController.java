@@ -38,7 +38,11 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestFullDto> getAllRequests(@RequestHeader(USER_ID_HEADER) int userId,
                                                    @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "10") Integer size) {
+                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                   @RequestParam(required = false) String after) {
+        if (after != null) {
+            return itemRequestService.getAllRequestsAfter(userId, after, size);
+        }
         return itemRequestService.getAllRequests(userId, from, size);
     }
 
@@ -1,19 +1,33 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
 
-    List<ItemRequest> findByRequestorIdOrderByCreatedDesc(int requestorId);
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findByRequestorIdOrderByCreatedDescIdDesc(int requestorId);
 
-    Page<ItemRequest> findAllByOrderByCreatedDesc(Pageable pageable);
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDescIdDesc(int requestorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :requestorId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOtherRequestsAfter(@Param("requestorId") int requestorId,
+                                             @Param("created") LocalDateTime created,
+                                             @Param("id") int id,
+                                             Pageable pageable);
 
     ItemRequest findByIdAndRequestorId(int requestId, int userId);
 }
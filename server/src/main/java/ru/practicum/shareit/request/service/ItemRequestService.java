@@ -13,6 +13,8 @@ public interface ItemRequestService {
 
     List<ItemRequestFullDto> getAllRequests(int userId, int from, int size);
 
+    List<ItemRequestFullDto> getAllRequestsAfter(int userId, String after, int size);
+
     ItemRequestFullDto getRequestById(int userId, int requestId);
 
 }
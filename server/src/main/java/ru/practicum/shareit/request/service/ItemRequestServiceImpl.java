@@ -2,15 +2,14 @@ package ru.practicum.shareit.request.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -23,7 +22,9 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -54,34 +55,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestFullDto> getUserRequests(int userId) {
         User user = UserMapper.INSTANCE.toUser(userService.getUserById(userId));
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId);
+        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId);
 
-        List<ItemRequestFullDto> result = new ArrayList<>();
-        for (ItemRequest request : requests) {
-            List<Item> items = itemService.findByRequestId(request.getId());
-            ItemRequestFullDto requestDto = RequestMapper.toItemRequestDto(request);
-            requestDto.setItems(ItemMapper.toItemShortDtoList(items));
-            result.add(requestDto);
-        }
-        return result;
+        return toRequestDtos(requests);
     }
 
     @Override
     public List<ItemRequestFullDto> getAllRequests(int userId, int from, int size) {
         userService.getUserById(userId);
-        PageRequest pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
-        Page<ItemRequest> requestsPage = itemRequestRepository.findAllByOrderByCreatedDesc(pageable);
+        PageRequest pageable = PageRequest.of(from / size, size);
+        return toRequestDtos(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDescIdDesc(userId, pageable));
+    }
 
-        List<ItemRequestFullDto> result = new ArrayList<>();
-        for (ItemRequest request : requestsPage) {
-            if (request.getRequestor().getId() != userId) {
-                List<Item> items = itemService.findByRequestId(request.getId());
-                ItemRequestFullDto requestDto = RequestMapper.toItemRequestDto(request);
-                requestDto.setItems(ItemMapper.toItemShortDtoList(items));
-                result.add(requestDto);
-            }
-        }
-        return result;
+    @Override
+    public List<ItemRequestFullDto> getAllRequestsAfter(int userId, String after, int size) {
+        KeysetCursor cursor = KeysetCursor.parse(after);
+        userService.getUserById(userId);
+        List<ItemRequest> requests = itemRequestRepository.findOtherRequestsAfter(userId, cursor.getTimestamp(),
+                cursor.getId(), PageRequest.of(0, size));
+        return toRequestDtos(requests);
     }
 
     @Override
@@ -95,4 +87,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         requestDto.setItems(ItemMapper.toItemShortDtoList(items));
         return requestDto;
     }
+
+    private List<ItemRequestFullDto> toRequestDtos(List<ItemRequest> requests) {
+        int[] requestIds = requests.stream().mapToInt(ItemRequest::getId).toArray();
+        List<Integer> ids = Arrays.stream(requestIds).boxed().collect(Collectors.toList());
+        RequestItems requestItems = new RequestItems(requestIds, itemService.findByRequestIdIn(ids));
+
+        List<ItemRequestFullDto> result = new ArrayList<>();
+        for (ItemRequest request : requests) {
+            ItemRequestFullDto requestDto = RequestMapper.toItemRequestDto(request);
+            requestDto.setItems(ItemMapper.toItemShortDtoList(requestItems.get(request.getId())));
+            result.add(requestDto);
+        }
+        return result;
+    }
 }
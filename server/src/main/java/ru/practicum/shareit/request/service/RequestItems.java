@@ -0,0 +1,38 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final class RequestItems {
+
+    private final int[] requestIds;
+
+    private final List<List<Item>> items;
+
+    RequestItems(int[] requestIds, List<Item> items) {
+        this.requestIds = requestIds.clone();
+        Arrays.sort(this.requestIds);
+        this.items = new ArrayList<>(this.requestIds.length);
+        for (int i = 0; i < this.requestIds.length; i++) {
+            this.items.add(new ArrayList<>());
+        }
+        for (Item item : items) {
+            int position = Arrays.binarySearch(this.requestIds, item.getRequest().getId());
+            if (position >= 0) {
+                this.items.get(position).add(item);
+            }
+        }
+    }
+
+    List<Item> get(int requestId) {
+        int position = Arrays.binarySearch(requestIds, requestId);
+        if (position < 0) {
+            return Collections.emptyList();
+        }
+        return items.get(position);
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -11,6 +12,10 @@ public interface UserService {
 
     List<UserDto> getAllUsers();
 
+    List<UserDto> getUsers(int from, int size);
+
+    void streamAllUsers(Consumer<UserDto> consumer);
+
     UserDto getUserById(int id);
 
     UserDto removeUser(int id);
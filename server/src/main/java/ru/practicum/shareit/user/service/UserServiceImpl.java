@@ -2,8 +2,13 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -13,16 +18,28 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    public static final String USERS_CACHE = "users";
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
     private final UserRepository userRepository;
 
+    private final CacheManager cacheManager;
+
     @Transactional
     @Override
     public UserDto addUser(User user) {
@@ -40,12 +57,40 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getUsers(int from, int size) {
+        log.info("Пришел запрос на получение пользователей с id больше {}, size {}", from, size);
+        return userRepository.findAllByIdGreaterThanOrderById(from, PageRequest.of(0, size)).stream()
+                .map(UserMapper.INSTANCE::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAllUsers(Consumer<UserDto> consumer) {
+        log.info("Пришел запрос на выгрузку всех пользователей.");
+        try (Stream<UserDto> users = userRepository.streamAllUsers()) {
+            users.forEach(consumer);
+        }
+    }
+
     @Override
     public UserDto getUserById(int id) {
         log.info("Пришел запрос на получение пользователя id {}", id);
+        Cache cache = cache();
+        UserDto cached = cache.get(id, UserDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generations.get(stripe(id));
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
-        return UserMapper.INSTANCE.toUserDto(user);
+        UserDto userDto = UserMapper.INSTANCE.toUserDto(user);
+        cache.put(id, userDto);
+        if (generations.get(stripe(id)) != generation) {
+            cache.evict(id);
+        }
+        return userDto;
     }
 
     @Transactional
@@ -56,6 +101,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
 
         userRepository.delete(user);
+        evictAfterCommit(id);
         return UserMapper.INSTANCE.toUserDto(user);
     }
 
@@ -76,18 +122,39 @@ public class UserServiceImpl implements UserService {
         if (user.getEmail() != null) {
             existingUser.setEmail(user.getEmail());
         }
+        evictAfterCommit(userId);
         log.info("Пользователь с ID {} успешно обновлен", userId);
         return UserMapper.INSTANCE.toUserDto(existingUser);
     }
 
-    public void checkUserByIdAndEmail(User user) {
-        Collection<User> users = userRepository.findAll();
-        List<User> collect = users.stream()
-                .filter(u -> !u.getId().equals(user.getId()))
-                .filter(u -> u.getEmail().equals(user.getEmail()))
-                .collect(Collectors.toList());
+    private void evictAfterCommit(int id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        } else {
+            evict(id);
+        }
+    }
 
-        if (!collect.isEmpty()) {
+    private void evict(int id) {
+        generations.incrementAndGet(stripe(id));
+        cache().evict(id);
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(USERS_CACHE), "Кэш " + USERS_CACHE + " не настроен");
+    }
+
+    private static int stripe(int id) {
+        return Math.floorMod(id, GENERATION_STRIPES);
+    }
+
+    public void checkUserByIdAndEmail(User user) {
+        if (user.getEmail() != null && userRepository.existsByEmailAndIdNot(user.getEmail(), user.getId())) {
             log.error("Пользователь с id {} и email {} уже существует", user.getId(), user.getEmail());
             throw new ConflictException("Пользователь с таким email и id уже существует");
         }
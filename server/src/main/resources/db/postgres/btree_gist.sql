@@ -0,0 +1,4 @@
+-- Применяется один раз пользователем с правом CREATE на базу данных (docker-compose монтирует
+-- каталог в /docker-entrypoint-initdb.d). Без расширения сервер не создает ограничение
+-- bookings_item_id_period_excl и проверяет пересечения бронирований только в приложении.
+CREATE EXTENSION if not exists btree_gist;
@@ -0,0 +1,4 @@
+-- Применяется один раз пользователем с правом CREATE на базу данных (docker-compose монтирует
+-- каталог в /docker-entrypoint-initdb.d). Без расширения сервер не создает триграммные индексы,
+-- и поиск вещей по подстроке (LIKE '%text%') читает таблицу items целиком.
+CREATE EXTENSION if not exists pg_trgm;
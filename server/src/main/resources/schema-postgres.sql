@@ -0,0 +1,2 @@
+CREATE INDEX if not exists idx_items_search ON items
+    USING gin (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
@@ -43,3 +43,16 @@ CREATE TABLE if not exists comments
     created   timestamp without time zone default current_timestamp
 );
 
+CREATE INDEX if not exists idx_items_owner_id ON items (owner_id);
+
+CREATE INDEX if not exists idx_bookings_booker_id_start_date ON bookings (booker_id, start_date desc, id desc);
+
+CREATE INDEX if not exists idx_bookings_item_id_start_date ON bookings (item_id, start_date);
+
+CREATE INDEX if not exists idx_bookings_status ON bookings (status);
+
+CREATE INDEX if not exists idx_requests_created ON requests (created desc, id desc);
+
+CREATE INDEX if not exists idx_requests_requestor_id_created ON requests (requestor_id, created desc, id desc);
+
+CREATE INDEX if not exists idx_comments_item_id_created ON comments (item_id, created desc, id desc);
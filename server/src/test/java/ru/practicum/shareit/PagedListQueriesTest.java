@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingQuery;
+import ru.practicum.shareit.booking.dto.BookingRole;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.booking.dto.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.support.StatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.support.StatementCounter.countStatements;
+
+@DataJpaTest(properties = StatementCounter.STATISTICS_PROPERTY)
+class PagedListQueriesTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        user = userRepository.save(User.builder().name("user").email("user@example.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@example.com").build());
+        for (int i = 0; i < 2; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .owner(user)
+                    .name("Дрель " + i)
+                    .description("Дрель ударная " + i)
+                    .available(true)
+                    .build());
+            bookingRepository.saveAll(List.of(
+                    Booking.builder().item(item).booker(user).status(Status.WAITING)
+                            .start(now.minusDays(3)).end(now.minusDays(2)).build(),
+                    Booking.builder().item(item).booker(user).status(Status.REJECTED)
+                            .start(now.minusDays(1)).end(now.plusDays(1)).build(),
+                    Booking.builder().item(item).booker(user).status(Status.APPROVED)
+                            .start(now.plusDays(2)).end(now.plusDays(3)).build()));
+            itemRequestRepository.save(ItemRequest.builder()
+                    .description("Нужна дрель " + i)
+                    .requestor(booker)
+                    .created(now.minusHours(i))
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testPagedListQueriesRunSingleStatement() {
+        Pageable pageable = PageRequest.of(0, 1);
+        int userId = user.getId();
+        Map<String, Supplier<List<?>>> queries = new HashMap<>(Map.ofEntries(
+                entry("ownerItems", () -> itemRepository.findAllByOwnerIdOrderById(userId, pageable)),
+                entry("search", () -> itemRepository.searchItems("дрель", pageable)),
+                entry("requests", () -> itemRequestRepository
+                        .findAllByRequestorIdNotOrderByCreatedDescIdDesc(userId, pageable))
+        ));
+        for (BookingRole role : BookingRole.values()) {
+            for (State state : List.of(State.ALL, State.CURRENT, State.PAST, State.FUTURE, State.WAITING, State.REJECTED)) {
+                BookingQuery query = BookingQuery.builder()
+                        .role(role)
+                        .userId(userId)
+                        .state(state)
+                        .now(now)
+                        .size(1)
+                        .build();
+                queries.put(role + " " + state, () -> bookingRepository.findBookings(query));
+            }
+        }
+
+        queries.forEach((name, query) -> {
+            long statements = countStatements(entityManager, () -> assertFalse(query.get().isEmpty(), name));
+
+            assertEquals(1, statements, name);
+        });
+    }
+}
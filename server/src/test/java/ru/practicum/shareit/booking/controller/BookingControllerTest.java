@@ -158,4 +158,43 @@ class BookingControllerTest {
 
         Mockito.verify(bookingService).getAllBookingsForItemsByOwnerId(Mockito.anyInt(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetBookingsByBookerIdAfterCursor() throws Exception {
+        int userId = 1;
+        String after = "2023-05-01T10:00:00,42";
+        Booking booking = BookingMapper.toBooking(bookingDto);
+        booking.setBooker(user);
+        List<BookingFullDto> bookingFullDtoList = List.of(BookingMapper.toBookingFullDto(booking));
+
+        when(bookingService.getBookingsByBookerIdAfter(userId, "ALL", after, 5)).thenReturn(bookingFullDtoList);
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, userId)
+                        .param("after", after)
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(bookingFullDtoList.get(0).getId()));
+
+        verify(bookingService).getBookingsByBookerIdAfter(userId, "ALL", after, 5);
+        verify(bookingService, Mockito.never()).getBookingsByBookerId(
+                Mockito.anyInt(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    void testGetAllBookingsForItemsByOwnerIdAfterCursor() throws Exception {
+        int userId = 1;
+        String after = "2023-05-01T10:00:00,42";
+
+        when(bookingService.getAllBookingsForItemsByOwnerIdAfter(userId, "WAITING", after, 10)).thenReturn(List.of());
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, userId)
+                        .param("state", "WAITING")
+                        .param("after", after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verify(bookingService).getAllBookingsForItemsByOwnerIdAfter(userId, "WAITING", after, 10);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPeriodConstraintTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private BookingPeriodConstraint bookingPeriodConstraint;
+
+    @Test
+    void testSkipsNonPostgresDatabase() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        bookingPeriodConstraint.apply();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testSkipsConstraintWithoutExtension() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(false);
+
+        bookingPeriodConstraint.apply();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testAddsConstraintOnce() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("pg_constraint"), eq(Boolean.class))).thenReturn(false, true);
+
+        bookingPeriodConstraint.apply();
+        bookingPeriodConstraint.apply();
+
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE bookings ADD CONSTRAINT "
+                + BookingPeriodConstraint.CONSTRAINT_NAME));
+    }
+}
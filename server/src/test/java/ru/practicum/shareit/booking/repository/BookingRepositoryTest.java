@@ -5,23 +5,36 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingListView;
+import ru.practicum.shareit.booking.dto.BookingQuery;
+import ru.practicum.shareit.booking.dto.BookingRole;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.support.SqlRecorder;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = SqlRecorder.INSPECTOR_PROPERTY)
 class BookingRepositoryTest {
 
     @Autowired
@@ -33,6 +46,9 @@ class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User user;
 
     private Item item1;
@@ -87,15 +103,76 @@ class BookingRepositoryTest {
 
 
     @Test
-    void testExistsBookingByIdAndStatusNot() {
+    void testUpdateStatusByIdAndOwnerId() {
+        User otherUser = userRepository.save(User.builder()
+                .name("other")
+                .email("other@example.com")
+                .build());
         booking1.setStatus(Status.WAITING);
         booking1.setStart(now);
         booking1.setEnd(now.plusHours(1));
+        bookingRepository.save(booking1);
 
+        assertEquals(0, bookingRepository.updateStatusByIdAndOwnerId(
+                booking1.getId(), otherUser.getId(), Status.WAITING, Status.APPROVED));
+        assertEquals(1, bookingRepository.updateStatusByIdAndOwnerId(
+                booking1.getId(), user.getId(), Status.WAITING, Status.APPROVED));
+        assertEquals(0, bookingRepository.updateStatusByIdAndOwnerId(
+                booking1.getId(), user.getId(), Status.WAITING, Status.REJECTED));
+        assertEquals(Status.APPROVED, bookingRepository.findWithItemAndBookerById(booking1.getId())
+                .orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFindIntervalsByItemId() {
+        LocalDateTime start = now.truncatedTo(ChronoUnit.SECONDS);
+        booking1.setStatus(Status.WAITING);
+        booking1.setStart(start);
+        booking1.setEnd(start.plusHours(1));
         bookingRepository.save(booking1);
+        Booking rejected = bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user)
+                .start(start.plusHours(2))
+                .end(start.plusHours(3))
+                .status(Status.REJECTED)
+                .build());
+
+        List<BookingIntervalView> intervals = bookingRepository.findIntervalsByItemId(item1.getId(),
+                List.of(Status.WAITING, Status.APPROVED));
+
+        assertEquals(1, intervals.size());
+        assertEquals(booking1.getId(), intervals.get(0).getId());
+        assertEquals(start, intervals.get(0).getStart());
+        assertEquals(start.plusHours(1), intervals.get(0).getEnd());
+        assertFalse(intervals.stream().anyMatch(interval -> interval.getId().equals(rejected.getId())));
+    }
 
-        boolean exists = bookingRepository.existsBookingByIdAndStatusNot(booking1.getId(), Status.APPROVED);
-        assertTrue(exists);
+    @Test
+    void testFindIntervalsByItemIdAndPeriod() {
+        LocalDateTime start = now.truncatedTo(ChronoUnit.SECONDS);
+        Booking before = bookingRepository.save(Booking.builder()
+                .item(item1).booker(user).status(Status.APPROVED)
+                .start(start.minusHours(3)).end(start.minusHours(1)).build());
+        Booking crossing = bookingRepository.save(Booking.builder()
+                .item(item1).booker(user).status(Status.APPROVED)
+                .start(start.minusHours(1)).end(start.plusHours(1)).build());
+        Booking inside = bookingRepository.save(Booking.builder()
+                .item(item1).booker(user).status(Status.WAITING)
+                .start(start.plusHours(2)).end(start.plusHours(3)).build());
+        bookingRepository.save(Booking.builder()
+                .item(item1).booker(user).status(Status.REJECTED)
+                .start(start.plusHours(4)).end(start.plusHours(5)).build());
+        bookingRepository.save(Booking.builder()
+                .item(item2).booker(user).status(Status.APPROVED)
+                .start(start).end(start.plusHours(1)).build());
+
+        List<BookingIntervalView> intervals = bookingRepository.findIntervalsByItemIdAndPeriod(item1.getId(),
+                List.of(Status.WAITING, Status.APPROVED), start.minusHours(1), start.plusHours(6));
+
+        assertEquals(List.of(crossing.getId(), inside.getId()),
+                intervals.stream().map(BookingIntervalView::getId).collect(Collectors.toList()));
+        assertFalse(intervals.stream().anyMatch(interval -> interval.getId().equals(before.getId())));
     }
 
     @Test
@@ -112,202 +189,322 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void testFindAllByBookerIdOrderByStartDesc() {
+    void testFindBookingsForBooker() {
+        LocalDateTime start = now.truncatedTo(ChronoUnit.SECONDS);
         booking1.setStatus(Status.WAITING);
-        booking1.setStart(now.minusDays(1));
-        booking1.setEnd(now);
+        booking1.setStart(start.minusDays(1));
+        booking1.setEnd(start);
         bookingRepository.save(booking1);
 
         booking2.setStatus(Status.WAITING);
-        booking2.setStart(now.plusDays(1));
-        booking2.setEnd(now.plusDays(2));
-
+        booking2.setStart(start.plusDays(1));
+        booking2.setEnd(start.plusDays(2));
         bookingRepository.save(booking2);
 
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(), PageRequest.of(0, 10));
-        List<Booking> bookingList = bookings.getContent();
-
-        assertEquals(2, bookingList.size());
-        assertTrue(bookingList.contains(booking1));
-        assertTrue(bookingList.contains(booking2));
+        List<BookingListView> bookingList = bookingRepository.findBookings(query(BookingRole.BOOKER, State.ALL));
+
+        assertEquals(List.of(booking2.getId(), booking1.getId()), ids(bookingList));
+        BookingListView view = bookingList.get(1);
+        assertEquals(booking1.getStart(), view.getStart());
+        assertEquals(booking1.getEnd(), view.getEnd());
+        assertEquals(Status.WAITING, view.getStatus());
+        assertEquals(item1.getId(), view.getItemId());
+        assertEquals(item1.getName(), view.getItemName());
+        assertEquals(user.getId(), view.getBookerId());
+        assertEquals(user.getName(), view.getBookerName());
     }
 
     @Test
-    void testFindAllByBookerIdAndStatusOrderByStartDesc() {
+    void testFindBookingsByState() {
         booking1.setStatus(Status.WAITING);
-        booking1.setStart(now.minusDays(1));
-        booking1.setEnd(now);
+        booking1.setStart(now.minusDays(3));
+        booking1.setEnd(now.minusDays(2));
         bookingRepository.save(booking1);
 
-        booking2.setStatus(Status.WAITING);
-        booking2.setStart(now.plusDays(1));
-        booking2.setEnd(now.plusDays(2));
-
+        booking2.setStatus(Status.APPROVED);
+        booking2.setStart(now.minusDays(1));
+        booking2.setEnd(now.plusDays(1));
         bookingRepository.save(booking2);
 
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.WAITING, PageRequest.of(0, 10));
-
-        assertEquals(2, bookings.getTotalElements());
-
-        assertTrue(bookings.getContent().contains(booking1));
-        assertTrue(bookings.getContent().contains(booking2));
-    }
-
-    @Test
-    void testFindAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc() {
-        LocalDateTime start = now.minusDays(1);
-        LocalDateTime end = now.plusDays(1);
-
-        booking1.setStatus(Status.APPROVED);
-        booking1.setStart(start);
-        booking1.setEnd(end);
-        bookingRepository.save(booking1);
-
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                user.getId(), end, start, PageRequest.of(0, 10));
-
-        assertTrue(bookings.getContent().contains(booking1));
+        Booking booking3 = bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.REJECTED)
+                .start(now.plusDays(2))
+                .end(now.plusDays(3))
+                .build());
+
+        Map<State, List<Integer>> expected = Map.of(
+                State.ALL, List.of(booking3.getId(), booking2.getId(), booking1.getId()),
+                State.CURRENT, List.of(booking2.getId()),
+                State.PAST, List.of(booking1.getId()),
+                State.FUTURE, List.of(booking3.getId()),
+                State.WAITING, List.of(booking1.getId()),
+                State.REJECTED, List.of(booking3.getId()));
+
+        for (BookingRole role : BookingRole.values()) {
+            expected.forEach((state, ids) ->
+                    assertEquals(ids, ids(bookingRepository.findBookings(query(role, state))), role + " " + state));
+        }
     }
 
     @Test
-    void testFindAllByBookerIdAndEndBeforeOrderByStartDesc() {
-        LocalDateTime end = LocalDateTime.now();
-
+    void testFindBookingsSeparatesBookerAndOwner() {
+        User another = userRepository.save(User.builder().name("another").email("another@example.com").build());
+        Item anotherItem = itemRepository.save(Item.builder()
+                .owner(another)
+                .name("Item 3")
+                .description("Description 3")
+                .available(true)
+                .build());
+        Booking ownBooking = bookingRepository.save(Booking.builder()
+                .item(anotherItem)
+                .booker(user)
+                .status(Status.WAITING)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build());
+        booking1.setBooker(another);
         booking1.setStatus(Status.WAITING);
-        booking1.setStart(now.minusDays(2));
-        booking1.setEnd(end.minusDays(1));
+        booking1.setStart(now.plusDays(3));
+        booking1.setEnd(now.plusDays(4));
         bookingRepository.save(booking1);
 
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
-                user.getId(), LocalDateTime.now(), PageRequest.of(0, 10));
-
-        assertEquals(1, bookings.getTotalElements());
+        assertEquals(List.of(ownBooking.getId()), ids(bookingRepository.findBookings(query(BookingRole.BOOKER, State.ALL))));
+        assertEquals(List.of(booking1.getId()), ids(bookingRepository.findBookings(query(BookingRole.OWNER, State.ALL))));
     }
 
     @Test
-    void testFindAllByBookerIdAndStartAfterOrderByStartDesc() {
-        LocalDateTime start = now.plusDays(1);
-
+    void testFindBookingsWithOffset() {
         booking1.setStatus(Status.WAITING);
-        booking1.setStart(start);
+        booking1.setStart(now.plusDays(1));
         booking1.setEnd(now.plusDays(2));
-
         bookingRepository.save(booking1);
 
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                user.getId(), now, PageRequest.of(0, 10));
+        booking2.setStatus(Status.WAITING);
+        booking2.setStart(now.plusDays(3));
+        booking2.setEnd(now.plusDays(4));
+        bookingRepository.save(booking2);
+
+        BookingQuery query = query(BookingRole.BOOKER, State.ALL);
+        query.setFrom(1);
+        query.setSize(1);
 
-        assertTrue(bookings.getContent().contains(booking1));
+        assertEquals(List.of(booking1.getId()), ids(bookingRepository.findBookings(query)));
     }
 
     @Test
-    void testFindAllByItem_OwnerIdOrderByStartDesc() {
-        booking1.setStatus(Status.WAITING);
-        booking1.setStart(now.minusDays(1));
-        booking1.setEnd(now.plusDays(1));
-
-        bookingRepository.save(booking1);
-
-        Page<Booking> bookings = bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(
-                item1.getOwner().getId(), PageRequest.of(0, 10));
+    void testFindBookingsRejectsUnsupportedState() {
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingRepository.findBookings(query(BookingRole.BOOKER, State.UNSUPPORTED_STATUS)));
+    }
 
-        assertTrue(bookings.getContent().contains(booking1));
+    @Test
+    void testFindLastAndNextBookingsByItemIds() {
+        LocalDateTime base = now.truncatedTo(ChronoUnit.SECONDS);
+        Booking oldBooking = Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.APPROVED)
+                .start(base.minusDays(3))
+                .end(base.minusDays(2))
+                .build();
+        Booking lastBooking = Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.APPROVED)
+                .start(base.minusDays(2))
+                .end(base.minusDays(1))
+                .build();
+        Booking nextBooking = Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.WAITING)
+                .start(base.plusDays(1))
+                .end(base.plusDays(2))
+                .build();
+        Booking laterBooking = Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.WAITING)
+                .start(base.plusDays(2))
+                .end(base.plusDays(3))
+                .build();
+        Booking rejectedBooking = Booking.builder()
+                .item(item2)
+                .booker(user)
+                .status(Status.REJECTED)
+                .start(base.plusDays(1))
+                .end(base.plusDays(2))
+                .build();
+        bookingRepository.saveAll(List.of(oldBooking, lastBooking, nextBooking, laterBooking, rejectedBooking));
+
+        List<BookingShortView> foundBookings = bookingRepository.findLastAndNextBookingsByItemIds(
+                List.of(item1.getId(), item2.getId()), user.getId(), Status.REJECTED.name(), now);
+
+        assertEquals(2, foundBookings.size());
+        BookingShortView last = foundBookings.stream().filter(BookingShortView::getPast).findFirst().orElseThrow();
+        BookingShortView next = foundBookings.stream().filter(b -> !b.getPast()).findFirst().orElseThrow();
+        assertEquals(lastBooking.getId(), last.getId());
+        assertEquals(user.getId(), last.getBookerId());
+        assertEquals(item1.getId(), last.getItemId());
+        assertEquals(lastBooking.getStart(), last.getStart());
+        assertEquals(nextBooking.getId(), next.getId());
+        assertEquals(nextBooking.getEnd(), next.getEnd());
     }
 
     @Test
-    void testFindAllByItem_OwnerIdAndStatusOrderByStartDesc() {
-        booking1.setStatus(Status.WAITING);
-        booking1.setStart(now.minusDays(1));
-        booking1.setEnd(now.plusDays(1));
+    void testFindLastAndNextBookingsByItemIdsForAnotherOwner() {
+        booking1.setStatus(Status.APPROVED);
+        booking1.setStart(now.minusDays(2));
+        booking1.setEnd(now.minusDays(1));
         bookingRepository.save(booking1);
 
-        Page<Booking> bookings = bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(
-                item1.getOwner().getId(), Status.WAITING, PageRequest.of(0, 10));
+        List<BookingShortView> foundBookings = bookingRepository.findLastAndNextBookingsByItemIds(
+                List.of(item1.getId()), user.getId() + 1, Status.REJECTED.name(), now);
 
-        assertTrue(bookings.getContent().contains(booking1));
+        assertTrue(foundBookings.isEmpty());
     }
 
     @Test
-    void testFindAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc() {
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        LocalDateTime start = currentDateTime.minusDays(1);
-        LocalDateTime end = currentDateTime.plusDays(1);
-
+    void testFindBookingsAfterCursor() {
+        LocalDateTime start = now.truncatedTo(ChronoUnit.SECONDS);
         booking1.setStatus(Status.WAITING);
         booking1.setStart(start);
-        booking1.setEnd(end);
-
+        booking1.setEnd(start.plusDays(1));
         bookingRepository.save(booking1);
+        booking2.setStatus(Status.WAITING);
+        booking2.setStart(start);
+        booking2.setEnd(start.plusDays(2));
+        bookingRepository.save(booking2);
+        Booking booking3 = bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.APPROVED)
+                .start(start.minusDays(3))
+                .end(start.minusDays(2))
+                .build());
 
-        Page<Booking> bookings = bookingRepository.findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                item1.getOwner().getId(), currentDateTime, currentDateTime, PageRequest.of(0, 10));
-
-        assertTrue(bookings.getContent().contains(booking1));
-    }
+        BookingQuery query = query(BookingRole.OWNER, State.ALL);
+        query.setSize(2);
+        List<BookingListView> firstPage = bookingRepository.findBookings(query);
 
-    @Test
-    void testFindAllByItem_OwnerIdAndEndBeforeOrderByStartDesc() {
-        booking1.setStatus(Status.WAITING);
-        booking1.setStart(now);
-        booking1.setEnd(now);
+        assertEquals(List.of(booking2.getId(), booking1.getId()), ids(firstPage));
 
-        bookingRepository.save(booking1);
+        BookingListView last = firstPage.get(1);
+        query.setAfter(new KeysetCursor(last.getStart(), last.getId()));
+        query.setFrom(5);
+        List<BookingListView> secondPage = bookingRepository.findBookings(query);
 
-        Page<Booking> bookings = bookingRepository.findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(
-                item1.getOwner().getId(), LocalDateTime.now(), PageRequest.of(0, 10));
+        assertEquals(List.of(booking3.getId()), ids(secondPage));
 
-        assertEquals(1, bookings.getTotalElements());
+        query.setState(State.WAITING);
+        assertTrue(bookingRepository.findBookings(query).isEmpty());
     }
 
     @Test
-    void testFindAllByItem_OwnerIdAndStartAfterOrderByStartDesc() {
-        LocalDateTime start = now.minusDays(2);
-
-        booking1.setStatus(Status.WAITING);
-        booking1.setStart(now.plusDays(1));
-        booking1.setEnd(now.plusDays(2));
-
+    void testFindBookingsRoundsFromDownToPageStart() {
+        LocalDateTime start = now.truncatedTo(ChronoUnit.SECONDS);
+        booking1.setStart(start);
+        booking1.setEnd(start.plusDays(1));
         bookingRepository.save(booking1);
-
-        Page<Booking> bookings = bookingRepository.findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(
-                item1.getOwner().getId(), start, PageRequest.of(0, 10));
-
-        assertTrue(bookings.getContent().contains(booking1));
+        booking2.setStart(start.plusDays(1));
+        booking2.setEnd(start.plusDays(2));
+        bookingRepository.save(booking2);
+        Booking booking3 = bookingRepository.save(Booking.builder()
+                .item(item1)
+                .booker(user)
+                .status(Status.APPROVED)
+                .start(start.minusDays(3))
+                .end(start.minusDays(2))
+                .build());
+
+        BookingQuery query = query(BookingRole.OWNER, State.ALL);
+        query.setSize(2);
+        query.setFrom(1);
+        assertEquals(List.of(booking2.getId(), booking1.getId()), ids(bookingRepository.findBookings(query)));
+
+        query.setFrom(3);
+        assertEquals(List.of(booking3.getId()), ids(bookingRepository.findBookings(query)));
     }
 
     @Test
-    void testFindLastBookingByOwnerId() {
-        LocalDateTime currentTime = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
-
-        booking1.setStatus(Status.REJECTED);
-        booking1.setStart(currentTime.minusDays(1));
-        booking1.setEnd(currentTime.minusHours(23));
-
-        bookings.add(booking1);
-
-        bookingRepository.saveAll(bookings);
-
-        List<Booking> foundBookings = bookingRepository.findLastBookingByOwnerId(item1.getId(), item1.getOwner().getId(), Status.APPROVED, currentTime);
-
-        assertTrue(foundBookings.contains(booking1));
+    void testFindBookingsReusesStatementShape() {
+        for (BookingRole role : BookingRole.values()) {
+            for (State state : List.of(State.ALL, State.CURRENT, State.PAST, State.FUTURE, State.WAITING, State.REJECTED)) {
+                BookingQuery another = query(role, state);
+                another.setUserId(user.getId() + 1);
+                another.setNow(now.plusHours(1));
+                List<String> statements = SqlRecorder.record(() -> {
+                    bookingRepository.findBookings(query(role, state));
+                    bookingRepository.findBookings(another);
+                });
+
+                assertEquals(2, statements.size());
+                assertEquals(statements.get(0), statements.get(1), role + " " + state);
+            }
+        }
     }
 
     @Test
-    void testFindNextBookingByOwnerId() {
-        LocalDateTime currentTime = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
-
-        booking1.setStatus(Status.REJECTED);
-        booking1.setStart(currentTime.plusDays(1));
-        booking1.setEnd(currentTime.plusDays(2));
-
-        bookings.add(booking1);
+    void testCursorQueriesReuseOneStatementShapeWithoutOffset() {
+        for (BookingRole role : BookingRole.values()) {
+            BookingQuery first = query(role, State.ALL);
+            first.setAfter(new KeysetCursor(now, Integer.MAX_VALUE));
+            first.setFrom(20);
+            BookingQuery next = query(role, State.ALL);
+            next.setAfter(new KeysetCursor(now.minusDays(3), 1));
+            List<String> statements = SqlRecorder.record(() -> {
+                bookingRepository.findBookings(first);
+                bookingRepository.findBookings(next);
+            });
+
+            assertEquals(2, statements.size());
+            assertEquals(statements.get(0), statements.get(1), role.name());
+            assertFalse(statements.get(0).contains("offset"), statements.get(0));
+        }
+    }
 
-        bookingRepository.saveAll(bookings);
+    @Test
+    void testBookingListQueriesDoNotUseFullScan() {
+        int userId = user.getId();
+        List<Runnable> queries = new ArrayList<>(List.of(
+                () -> bookingRepository.findLastAndNextBookingsByItemIds(
+                        List.of(item1.getId(), item2.getId()), userId, Status.REJECTED.name(), now),
+                () -> bookingRepository.findIntervalsByItemIdAndPeriod(
+                        item1.getId(), List.of(Status.WAITING, Status.APPROVED), now, now.plusDays(1))
+        ));
+        for (BookingRole role : BookingRole.values()) {
+            for (State state : List.of(State.ALL, State.CURRENT, State.PAST, State.FUTURE, State.WAITING)) {
+                BookingQuery query = query(role, state);
+                queries.add(() -> bookingRepository.findBookings(query));
+                BookingQuery cursorQuery = query(role, state);
+                cursorQuery.setAfter(new KeysetCursor(now, Integer.MAX_VALUE));
+                queries.add(() -> bookingRepository.findBookings(cursorQuery));
+            }
+        }
+
+        for (Runnable query : queries) {
+            List<String> statements = SqlRecorder.record(query);
+            assertFalse(statements.isEmpty());
+            for (String sql : statements) {
+                String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+                assertFalse(plan.contains("BOOKINGS.tableScan"), plan);
+            }
+        }
+    }
 
-        List<Booking> foundBookings = bookingRepository.findNextBookingByOwnerId(item1.getId(), item1.getOwner().getId(), Status.APPROVED, currentTime);
+    private BookingQuery query(BookingRole role, State state) {
+        return BookingQuery.builder()
+                .role(role)
+                .userId(user.getId())
+                .state(state)
+                .now(now)
+                .size(10)
+                .build();
+    }
 
-        assertTrue(foundBookings.contains(booking1));
+    private List<Integer> ids(List<BookingListView> bookings) {
+        return bookings.stream().map(BookingListView::getId).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.BusyIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCalendarTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private AvailabilityCalendar calendar;
+
+    private final LocalDateTime day1 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final LocalDateTime day2 = day1.plusDays(1);
+
+    private final LocalDateTime day3 = day1.plusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        calendar = new AvailabilityCalendar(bookingRepository,
+                new ConcurrentMapCacheManager(AvailabilityCalendar.AVAILABILITY_CACHE));
+    }
+
+    @Test
+    void testBusyIntervalsAreMergedAndClipped() {
+        when(bookingRepository.findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day3))
+                .thenReturn(List.of(
+                        interval(1, day1.minusHours(3), day1.plusHours(2)),
+                        interval(2, day1.plusHours(2), day1.plusHours(4)),
+                        interval(3, day1.plusHours(20), day2.plusHours(1)),
+                        interval(4, day2.plusHours(10), day2.plusHours(30))));
+
+        List<BusyIntervalDto> busy = calendar.getBusyIntervals(1, day1.plusHours(1), day2.plusHours(12));
+
+        assertEquals(List.of(
+                new BusyIntervalDto(day1.plusHours(1), day1.plusHours(4)),
+                new BusyIntervalDto(day1.plusHours(20), day2.plusHours(1)),
+                new BusyIntervalDto(day2.plusHours(10), day2.plusHours(12))), busy);
+    }
+
+    @Test
+    void testDaysLoadedBeforeConcurrentChangeAreNotCached() {
+        when(bookingRepository.findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day2))
+                .thenAnswer(invocation -> {
+                    calendar.onBookingChanged(1, day1.plusHours(1), day1.plusHours(2));
+                    return List.of();
+                })
+                .thenReturn(List.of(interval(1, day1.plusHours(1), day1.plusHours(2))));
+
+        assertEquals(List.of(), calendar.getBusyIntervals(1, day1, day2));
+        List<BusyIntervalDto> busy = calendar.getBusyIntervals(1, day1, day2);
+
+        assertEquals(List.of(new BusyIntervalDto(day1.plusHours(1), day1.plusHours(2))), busy);
+        verify(bookingRepository, times(2))
+                .findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day2);
+    }
+
+    @Test
+    void testCachedDaysAreNotQueriedAgain() {
+        when(bookingRepository.findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day2))
+                .thenReturn(List.of(interval(1, day1.plusHours(1), day1.plusHours(2))));
+        when(bookingRepository.findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day2, day3))
+                .thenReturn(List.of());
+
+        calendar.getBusyIntervals(1, day1, day2);
+        List<BusyIntervalDto> busy = calendar.getBusyIntervals(1, day1, day3);
+
+        assertEquals(List.of(new BusyIntervalDto(day1.plusHours(1), day1.plusHours(2))), busy);
+        verify(bookingRepository, times(1))
+                .findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day2);
+        verify(bookingRepository, times(1))
+                .findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day2, day3);
+        calendar.getBusyIntervals(1, day1.plusHours(5), day3);
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndPeriod(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void testBookingChangeEvictsAffectedDays() {
+        when(bookingRepository.findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day3))
+                .thenReturn(List.of());
+        when(bookingRepository.findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day2, day3))
+                .thenReturn(List.of(interval(1, day2.plusHours(1), day2.plusHours(2))));
+        calendar.getBusyIntervals(1, day1, day3);
+
+        calendar.onBookingChanged(1, day2.plusHours(1), day2.plusHours(2));
+        List<BusyIntervalDto> busy = calendar.getBusyIntervals(1, day1, day3);
+
+        assertEquals(List.of(new BusyIntervalDto(day2.plusHours(1), day2.plusHours(2))), busy);
+        verify(bookingRepository, never()).findIntervalsByItemIdAndPeriod(1, BookingIntervalIndex.BLOCKING_STATUSES, day1, day2);
+    }
+
+    private BookingIntervalView interval(int id, LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingIntervalView.class,
+                Map.of("id", id, "start", start, "end", end));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testItemIsLoadedOnceOnFirstUse() {
+        when(bookingRepository.findIntervalsByItemId(1, BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(interval(10, start, start.plusHours(2))));
+        when(bookingRepository.existsOverlappingBooking(1, start.plusHours(1), start.plusHours(3),
+                BookingIntervalIndex.BLOCKING_STATUSES)).thenReturn(true);
+
+        assertFalse(index.isFree(1, start.plusHours(1), start.plusHours(3)));
+        assertTrue(index.isFree(1, start.plusHours(2), start.plusHours(3)));
+
+        verify(bookingRepository, times(1)).findIntervalsByItemId(1, BookingIntervalIndex.BLOCKING_STATUSES);
+    }
+
+    @Test
+    void testFreeIntervalIsNotCheckedInDatabase() {
+        when(bookingRepository.findIntervalsByItemId(1, BookingIntervalIndex.BLOCKING_STATUSES)).thenReturn(List.of());
+
+        assertTrue(index.isFree(1, start, start.plusHours(1)));
+
+        verify(bookingRepository, never()).existsOverlappingBooking(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void testStaleBusyIntervalIsConfirmedInDatabaseAndReloaded() {
+        when(bookingRepository.findIntervalsByItemId(1, BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(interval(10, start, start.plusHours(2))), List.of());
+        when(bookingRepository.existsOverlappingBooking(1, start, start.plusHours(1),
+                BookingIntervalIndex.BLOCKING_STATUSES)).thenReturn(false);
+
+        assertTrue(index.isFree(1, start, start.plusHours(1)));
+        assertTrue(index.isFree(1, start, start.plusHours(1)));
+
+        verify(bookingRepository, times(2)).findIntervalsByItemId(1, BookingIntervalIndex.BLOCKING_STATUSES);
+        verify(bookingRepository, times(1)).existsOverlappingBooking(1, start, start.plusHours(1),
+                BookingIntervalIndex.BLOCKING_STATUSES);
+    }
+
+    @Test
+    void testCreatedAndReleasedBookingsUpdateLoadedItem() {
+        when(bookingRepository.findIntervalsByItemId(1, BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(interval(10, start, start.plusHours(2))));
+        when(bookingRepository.existsOverlappingBooking(1, start.plusHours(3), start.plusHours(4),
+                BookingIntervalIndex.BLOCKING_STATUSES)).thenReturn(true);
+
+        index.isFree(1, start.plusHours(2), start.plusHours(3));
+
+        index.onBookingCreated(1, 11, start.plusHours(2), start.plusHours(4));
+        assertFalse(index.isFree(1, start.plusHours(3), start.plusHours(4)));
+
+        index.onBookingReleased(1, 10);
+        assertTrue(index.isFree(1, start, start.plusHours(2)));
+    }
+
+    @Test
+    void testEpochMicros() {
+        LocalDateTime dateTime = LocalDateTime.of(1970, 1, 1, 0, 0, 1, 123_456_000);
+
+        assertEquals(1_123_456, BookingIntervalIndex.toEpochMicros(dateTime));
+    }
+
+    private BookingIntervalView interval(int id, LocalDateTime start, LocalDateTime end) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingIntervalView.class,
+                Map.of("id", id, "start", start, "end", end));
+    }
+}
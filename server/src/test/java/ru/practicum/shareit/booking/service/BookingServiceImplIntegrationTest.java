@@ -1,25 +1,54 @@
 package ru.practicum.shareit.booking.service;
 
+import lombok.extern.slf4j.Slf4j;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.Status;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.support.StatementCounter;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.support.StatementCounter.countStatements;
 
-@SpringBootTest
+@SpringBootTest(properties = StatementCounter.STATISTICS_PROPERTY)
 @Transactional
+@Slf4j
 public class BookingServiceImplIntegrationTest {
     @Autowired
     private BookingService bookingService;
@@ -27,6 +56,14 @@ public class BookingServiceImplIntegrationTest {
     private ItemService itemService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
     private final EasyRandom random = new EasyRandom();
 
     @Test
@@ -63,4 +100,167 @@ public class BookingServiceImplIntegrationTest {
         assertEquals(bookingCreateDto.getStart(), bookingFullDto.getStart());
         assertEquals(bookingCreateDto.getEnd(), bookingFullDto.getEnd());
     }
+
+    @Test
+    @DirtiesContext
+    void bookingListsShouldRunConstantNumberOfStatements() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@example.com").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 12; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .owner(owner)
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .build());
+            bookingRepository.save(Booking.builder().item(item).booker(booker).status(Status.WAITING)
+                    .start(start.plusDays(i)).end(start.plusDays(i).plusHours(1)).build());
+        }
+        entityManager.flush();
+
+        long smallPageStatements = countStatements(entityManager,
+                () -> bookingService.getBookingsByBookerId(booker.getId(), "ALL", 0, 2));
+        long largePageStatements = countStatements(entityManager,
+                () -> bookingService.getBookingsByBookerId(booker.getId(), "ALL", 0, 10));
+        long ownerStatements = countStatements(entityManager,
+                () -> bookingService.getAllBookingsForItemsByOwnerId(owner.getId(), "ALL", 0, 10));
+
+        assertEquals(smallPageStatements, largePageStatements);
+        assertEquals(largePageStatements, ownerStatements);
+        assertEquals(2, largePageStatements);
+
+        entityManager.clear();
+        List<BookingFullDto> bookings = bookingService.getAllBookingsForItemsByOwnerId(owner.getId(), "ALL", 0, 10);
+        assertEquals(10, bookings.size());
+        assertEquals("Item 11", bookings.get(0).getItem().getName());
+        assertEquals("booker", bookings.get(0).getBooker().getName());
+    }
+
+    @Test
+    @DirtiesContext
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateBookingStatusShouldSucceedOnceUnderConcurrentRequests() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@example.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("Item")
+                .description("Description")
+                .available(true)
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(Status.WAITING)
+                .build());
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<BookingFullDto>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                boolean approved = i % 2 == 0;
+                Callable<BookingFullDto> task = () -> {
+                    startSignal.await();
+                    return bookingService.updateBookingStatus(owner.getId(), booking.getId(), approved);
+                };
+                results.add(executor.submit(task));
+            }
+            startSignal.countDown();
+
+            int succeeded = 0;
+            Status resultStatus = null;
+            for (Future<BookingFullDto> result : results) {
+                try {
+                    resultStatus = result.get().getStatus();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ValidationException.class, e.getCause());
+                }
+            }
+
+            assertEquals(1, succeeded);
+            assertEquals(resultStatus, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createBookingShouldNeverCreateOverlappingBookingsUnderConcurrentRequests() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").build());
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker" + i).email("booker" + i + "@example.com").build()));
+        }
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .owner(owner)
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .build()));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        int threads = 8;
+        int attemptsPerThread = 50;
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                User booker = bookers.get(i % bookers.size());
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                        LocalDateTime start = base.plusHours(random.nextInt(240));
+                        Booking booking = Booking.builder()
+                                .item(Item.builder().id(items.get(random.nextInt(items.size())).getId()).build())
+                                .start(start)
+                                .end(start.plusHours(1 + random.nextInt(24)))
+                                .build();
+                        try {
+                            bookingService.createBooking(booker.getId(), booking);
+                            created.incrementAndGet();
+                        } catch (ConflictException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            startSignal.countDown();
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+            long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            log.info("Создано {} бронирований, отклонено {} за {} мс ({} запросов/с)", created.get(), rejected.get(),
+                    elapsedMillis, (created.get() + rejected.get()) * 1000L / elapsedMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Booking> bookings = bookingRepository.findAll();
+        assertEquals(threads * attemptsPerThread, created.get() + rejected.get());
+        assertEquals(created.get(), bookings.size());
+        assertTrue(created.get() > 0);
+        for (Booking first : bookings) {
+            for (Booking second : bookings) {
+                if (first.getId() < second.getId() && first.getItem().getId().equals(second.getItem().getId())) {
+                    assertFalse(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()),
+                            "Бронирования " + first.getId() + " и " + second.getId() + " пересекаются");
+                }
+            }
+        }
+    }
 }
@@ -5,33 +5,45 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.BookingListView;
+import ru.practicum.shareit.booking.dto.BookingQuery;
+import ru.practicum.shareit.booking.dto.BookingRole;
+import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +59,15 @@ class BookingServiceImplTest {
     @Mock
     private ItemService itemService;
 
+    @Mock
+    private ItemLocks itemLocks;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private AvailabilityCalendar availabilityCalendar;
+
     private final EasyRandom random = new EasyRandom();
 
     private final LocalDateTime yesterday = LocalDateTime.now();
@@ -61,7 +82,8 @@ class BookingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, userService, itemService);
+        bookingService = new BookingServiceImpl(bookingRepository, userService, itemService, itemLocks, bookingIntervalIndex,
+                availabilityCalendar);
         user = random.nextObject(User.class);
         item = random.nextObject(Item.class);
         booker = random.nextObject(User.class);
@@ -75,11 +97,29 @@ class BookingServiceImplTest {
         ItemDto itemDto = ItemMapper.toItemDto(item);
         when(userService.getUserById(userId)).thenReturn(UserMapper.INSTANCE.toUserDto(user));
         when(itemService.getItem(userId, booking.getItem().getId())).thenReturn(itemDto);
+        when(bookingIntervalIndex.isFree(item.getId(), yesterday, tomorrow)).thenReturn(true);
         when(bookingRepository.save(Mockito.any())).thenReturn(booking);
         BookingFullDto bookingFullDto = BookingMapper.toBookingFullDto(booking);
         BookingFullDto bookingFromDb = bookingService.createBooking(userId, booking);
 
         assertEquals(bookingFullDto, bookingFromDb);
+        verify(itemLocks).lockUntilTransactionCompletes(item.getId());
+        verify(bookingIntervalIndex).onBookingCreated(item.getId(), booking.getId(), yesterday, tomorrow);
+        verify(availabilityCalendar).onBookingChanged(item.getId(), yesterday, tomorrow);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAddBookingIfBookingOverlapsExisting() {
+        int userId = 1;
+        item.setAvailable(true);
+        Booking booking = new Booking(1, yesterday, tomorrow, item, user, Status.WAITING);
+        when(userService.getUserById(userId)).thenReturn(UserMapper.INSTANCE.toUserDto(user));
+        when(itemService.getItem(userId, item.getId())).thenReturn(ItemMapper.toItemDto(item));
+        when(bookingIntervalIndex.isFree(item.getId(), yesterday, tomorrow)).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(userId, booking));
+        verify(itemLocks).lockUntilTransactionCompletes(item.getId());
+        verify(bookingRepository, never()).save(Mockito.any());
     }
 
     @Test
@@ -188,16 +228,23 @@ class BookingServiceImplTest {
         booking.setItem(item);
         booking.setBooker(booker);
 
-        when(bookingRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(Mockito.any())).thenReturn(booking);
+        when(bookingRepository.updateStatusByIdAndOwnerId(booking.getId(), user.getId(), Status.WAITING, Status.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(booking.getId())).thenReturn(Optional.of(booking));
 
-        booking.setStatus(Status.WAITING);
+        booking.setStatus(Status.APPROVED);
         BookingFullDto bookingFullDtoFromMethod = bookingService.updateBookingStatus(user.getId(), booking.getId(), true);
         assertEquals(Status.APPROVED, bookingFullDtoFromMethod.getStatus());
 
-        booking.setStatus(Status.WAITING);
+        when(bookingRepository.updateStatusByIdAndOwnerId(booking.getId(), user.getId(), Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
+
+        booking.setStatus(Status.REJECTED);
         bookingFullDtoFromMethod = bookingService.updateBookingStatus(user.getId(), booking.getId(), false);
         assertEquals(Status.REJECTED, bookingFullDtoFromMethod.getStatus());
+        verify(bookingIntervalIndex).onBookingReleased(item.getId(), booking.getId());
+        verify(bookingRepository, never()).findById(Mockito.anyInt());
+        verify(bookingRepository, never()).save(Mockito.any());
     }
 
     @Test
@@ -207,7 +254,9 @@ class BookingServiceImplTest {
         booking.setItem(item);
         booking.setBooker(booker);
 
-        when(bookingRepository.findById(Mockito.anyInt())).thenThrow(NotFoundException.class);
+        when(bookingRepository.updateStatusByIdAndOwnerId(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any()))
+                .thenReturn(0);
+        when(bookingRepository.findById(Mockito.anyInt())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.updateBookingStatus(user.getId(), booking.getId(), true));
     }
@@ -218,9 +267,11 @@ class BookingServiceImplTest {
         item.setOwner(user);
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setStatus(Status.APPROVED);
 
+        when(bookingRepository.updateStatusByIdAndOwnerId(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any()))
+                .thenReturn(0);
         when(bookingRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.existsBookingByIdAndStatusNot(Mockito.anyInt(), Mockito.any(Status.class))).thenReturn(true);
 
         assertThrows(ValidationException.class, () -> bookingService.updateBookingStatus(user.getId(), booking.getId(), true));
     }
@@ -230,10 +281,11 @@ class BookingServiceImplTest {
         Booking booking = random.nextObject(Booking.class);
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setStatus(Status.WAITING);
 
-
+        when(bookingRepository.updateStatusByIdAndOwnerId(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any()))
+                .thenReturn(0);
         when(bookingRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.existsBookingByIdAndStatusNot(Mockito.anyInt(), Mockito.any(Status.class))).thenReturn(false);
         assertThrows(NotFoundException.class, () -> bookingService.updateBookingStatus(user.getId(), booking.getId(), true));
     }
 
@@ -289,9 +341,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(Mockito.anyInt(), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getBookingsByBookerId(booker.getId(), "ALL", 0, 5));
+        verifyQuery(BookingRole.BOOKER, State.ALL);
     }
 
     @Test
@@ -308,10 +361,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getBookingsByBookerId(booker.getId(), "CURRENT", 0, 5));
+        verifyQuery(BookingRole.BOOKER, State.CURRENT);
     }
 
     @Test
@@ -328,10 +381,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getBookingsByBookerId(booker.getId(), "PAST", 0, 5));
+        verifyQuery(BookingRole.BOOKER, State.PAST);
     }
 
     @Test
@@ -348,10 +401,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getBookingsByBookerId(booker.getId(), "FUTURE", 0, 5));
+        verifyQuery(BookingRole.BOOKER, State.FUTURE);
     }
 
     @Test
@@ -368,10 +421,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(Status.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getBookingsByBookerId(booker.getId(), "WAITING", 0, 5));
+        verifyQuery(BookingRole.BOOKER, State.WAITING);
     }
 
     @Test
@@ -388,10 +441,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(Status.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getBookingsByBookerId(booker.getId(), "REJECTED", 0, 5));
+        verifyQuery(BookingRole.BOOKER, State.REJECTED);
     }
 
     @Test
@@ -401,6 +454,15 @@ class BookingServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByBookerId(booker.getId(), "UNSUPPORTED STATUS", 0, 5));
     }
 
+    @Test
+    void shouldThrowUnsupportedStatusExceptionWithoutQueryingBookings() {
+        when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
+
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingService.getBookingsByBookerId(booker.getId(), "UNSUPPORTED_STATUS", 0, 5));
+        verify(bookingRepository, never()).findBookings(Mockito.any());
+    }
+
     @Test
     void testCheckSize() {
         assertThrows(ValidationException.class, () -> bookingService.getBookingsByBookerId(booker.getId(), "UNSUPPORTED STATUS", -1, 0));
@@ -420,9 +482,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
-        when(bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(Mockito.anyInt(), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "ALL", 0, 5));
+        verifyQuery(BookingRole.OWNER, State.ALL);
     }
 
     @Test
@@ -439,10 +502,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
-        when(bookingRepository.findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "CURRENT", 0, 5));
+        verifyQuery(BookingRole.OWNER, State.CURRENT);
     }
 
     @Test
@@ -459,10 +522,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
-        when(bookingRepository.findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "PAST", 0, 5));
+        verifyQuery(BookingRole.OWNER, State.PAST);
     }
 
     @Test
@@ -479,10 +542,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
-        when(bookingRepository.findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "FUTURE", 0, 5));
+        verifyQuery(BookingRole.OWNER, State.FUTURE);
     }
 
     @Test
@@ -499,10 +562,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
-        when(bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(Status.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "WAITING", 0, 5));
+        verifyQuery(BookingRole.OWNER, State.WAITING);
     }
 
     @Test
@@ -519,10 +582,10 @@ class BookingServiceImplTest {
                 .collect(Collectors.toList());
 
         when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
-        when(bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(
-                Mockito.anyInt(), Mockito.any(Status.class), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(bookings));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
 
         assertEquals(bookingsFullDto, bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "REJECTED", 0, 5));
+        verifyQuery(BookingRole.OWNER, State.REJECTED);
     }
 
     @Test
@@ -532,4 +595,77 @@ class BookingServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> bookingService.getAllBookingsForItemsByOwnerId(user.getId(), "UNSUPPORTED STATUS", 0, 5));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsByBookerIdAfterCursor() {
+        item.setOwner(user);
+        List<Booking> bookings = random.objects(Booking.class, 3)
+                .peek(booking -> {
+                    booking.setBooker(booker);
+                    booking.setItem(item);
+                })
+                .collect(Collectors.toList());
+        List<BookingFullDto> bookingsFullDto = bookings.stream()
+                .map(BookingMapper::toBookingFullDto)
+                .collect(Collectors.toList());
+
+        when(userService.getUserById(booker.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(booker));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(toViews(bookings));
+
+        assertEquals(bookingsFullDto,
+                bookingService.getBookingsByBookerIdAfter(booker.getId(), "ALL", "2023-05-01T10:00,42", 3));
+        BookingQuery query = verifyQuery(BookingRole.BOOKER, State.ALL);
+        assertEquals(new KeysetCursor(LocalDateTime.of(2023, 5, 1, 10, 0), 42), query.getAfter());
+        assertEquals(3, query.getSize());
+    }
+
+    @Test
+    void getWaitingBookingsForItemsByOwnerIdAfterCursor() {
+        when(userService.getUserById(user.getId())).thenReturn(UserMapper.INSTANCE.toUserDto(user));
+        when(bookingRepository.findBookings(Mockito.any(BookingQuery.class))).thenReturn(List.of());
+
+        assertEquals(List.of(),
+                bookingService.getAllBookingsForItemsByOwnerIdAfter(user.getId(), "WAITING", "2023-05-01T10:00:00,7", 10));
+        BookingQuery query = verifyQuery(BookingRole.OWNER, State.WAITING);
+        assertEquals(new KeysetCursor(LocalDateTime.of(2023, 5, 1, 10, 0), 7), query.getAfter());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenGetBookingsAfterMalformedCursor() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByBookerIdAfter(booker.getId(), "ALL", "2023-05-01T10:00:00", 5));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByBookerIdAfter(booker.getId(), "ALL", "yesterday,5", 5));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByBookerIdAfter(booker.getId(), "ALL", "2023-05-01T10:00:00,x", 5));
+        verify(bookingRepository, never()).findBookings(Mockito.any());
+    }
+
+    private BookingQuery verifyQuery(BookingRole role, State state) {
+        ArgumentCaptor<BookingQuery> captor = ArgumentCaptor.forClass(BookingQuery.class);
+        verify(bookingRepository).findBookings(captor.capture());
+        BookingQuery query = captor.getValue();
+        assertEquals(role, query.getRole());
+        assertEquals(state, query.getState());
+        assertNotNull(query.getNow());
+        return query;
+    }
+
+    private List<BookingListView> toViews(List<Booking> bookings) {
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        return bookings.stream()
+                .map(booking -> {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("id", booking.getId());
+                    row.put("start", booking.getStart());
+                    row.put("end", booking.getEnd());
+                    row.put("status", booking.getStatus());
+                    row.put("itemId", booking.getItem().getId());
+                    row.put("itemName", booking.getItem().getName());
+                    row.put("bookerId", booking.getBooker().getId());
+                    row.put("bookerName", booking.getBooker().getName());
+                    return projectionFactory.createProjection(BookingListView.class, row);
+                })
+                .collect(Collectors.toList());
+    }
+}
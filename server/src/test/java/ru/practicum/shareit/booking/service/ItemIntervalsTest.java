@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemIntervalsTest {
+
+    private ItemIntervals intervals;
+
+    @BeforeEach
+    void setUp() {
+        intervals = new ItemIntervals();
+        intervals.add(2, 30, 40);
+        intervals.add(1, 10, 20);
+        intervals.add(3, 50, 55);
+    }
+
+    @Test
+    void testIsFreeTreatsIntervalsAsHalfOpen() {
+        assertTrue(intervals.isFree(0, 10));
+        assertTrue(intervals.isFree(20, 30));
+        assertTrue(intervals.isFree(55, 100));
+        assertFalse(intervals.isFree(15, 16));
+        assertFalse(intervals.isFree(19, 31));
+        assertFalse(intervals.isFree(0, 100));
+    }
+
+    @Test
+    void testRemoveFreesInterval() {
+        intervals.remove(2);
+
+        assertTrue(intervals.isFree(20, 50));
+        assertFalse(intervals.isFree(12, 42));
+        assertEquals(2, intervals.size());
+    }
+
+    @Test
+    void testAddReplacesIntervalWithSameId() {
+        intervals.add(1, 100, 110);
+
+        assertTrue(intervals.isFree(10, 20));
+        assertFalse(intervals.isFree(105, 106));
+        assertEquals(3, intervals.size());
+    }
+
+    @Test
+    void testOverlappingIntervalsAreHandled() {
+        intervals.add(4, 5, 45);
+
+        assertFalse(intervals.isFree(41, 42));
+        assertTrue(intervals.isFree(0, 5));
+        assertTrue(intervals.isFree(45, 50));
+        assertFalse(intervals.isFree(6, 11));
+    }
+}
@@ -13,8 +13,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.BusyIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
@@ -25,6 +27,7 @@ import ru.practicum.shareit.user.model.User;
 
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -198,6 +201,32 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available").value(itemsDto.get(0).getAvailable()));
     }
 
+    @Test
+    void testGetItemAvailability() throws Exception {
+        int userId = 1;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemDto.getId())
+                .from(from)
+                .to(to)
+                .busy(List.of(new BusyIntervalDto(from.plusHours(2), from.plusHours(4))))
+                .build();
+        when(itemService.getItemAvailability(userId, itemDto.getId(), from, to)).thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", itemDto.getId())
+                        .header(USER_ID_HEADER, userId)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(itemDto.getId()))
+                .andExpect(jsonPath("$.busy.length()").value(1))
+                .andExpect(jsonPath("$.busy[0].start").value("2030-01-01T02:00:00"))
+                .andExpect(jsonPath("$.busy[0].end").value("2030-01-01T04:00:00"));
+
+        verify(itemService).getItemAvailability(userId, itemDto.getId(), from, to);
+    }
+
     @Test
     void addComment() throws Exception {
         int userId = 1;
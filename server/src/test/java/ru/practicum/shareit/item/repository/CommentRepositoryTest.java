@@ -1,19 +1,22 @@
 package ru.practicum.shareit.item.repository;
 
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class CommentRepositoryTest {
@@ -27,6 +30,28 @@ class CommentRepositoryTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    private User user;
+
+    private Item item1;
+
+    private Item item2;
+
+    private Item item3;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        user = userRepository.save(User.builder()
+                .name("username")
+                .email("email@example.com")
+                .build());
+        item1 = item("Item 1");
+        item2 = item("Item 2");
+        item3 = item("Item 3");
+    }
+
     @AfterEach
     public void cleanup() {
         itemRepository.deleteAll();
@@ -35,49 +60,65 @@ class CommentRepositoryTest {
     }
 
     @Test
-    public void testFindAllByItemId() {
-        User user = User.builder()
-                .name("username")
-                .email("email@example.com")
-                .build();
-        userRepository.save(user);
+    public void testFindLatestByItemIdInForOneItem() {
+        Comment comment1 = comment(item1, "Comment 1", now.minusDays(2));
+        Comment comment2 = comment(item1, "Comment 2", now.minusDays(1));
+        Comment comment3 = comment(item1, "Comment 3", now);
+
+        List<CommentView> comments = commentRepository.findLatestByItemIdIn(List.of(item1.getId()), 10);
+
+        assertEquals(List.of(comment1.getId(), comment2.getId(), comment3.getId()), ids(comments));
+        CommentView view = comments.get(2);
+        assertEquals(item1.getId(), view.getItemId());
+        assertEquals("Comment 3", view.getText());
+        assertEquals("username", view.getAuthorName());
+        assertEquals(now, view.getCreated());
+    }
+
+    @Test
+    public void testFindLatestByItemIdInForManyItems() {
+        Comment comment1 = comment(item1, "Comment 1", now);
+        Comment comment2 = comment(item2, "Comment 2", now);
+        comment(item3, "Comment 3", now);
 
-        Item item = Item.builder()
+        List<CommentView> comments = commentRepository.findLatestByItemIdIn(List.of(item1.getId(), item2.getId()), 10);
+
+        assertEquals(List.of(comment1.getId(), comment2.getId()), ids(comments));
+    }
+
+    @Test
+    public void testFindLatestByItemIdInShouldLimitCommentsPerItem() {
+        comment(item1, "Old", now.minusDays(3));
+        Comment sameTime1 = comment(item1, "Same time 1", now.minusDays(1));
+        Comment sameTime2 = comment(item1, "Same time 2", now.minusDays(1));
+        Comment latest = comment(item1, "Latest", now);
+        Comment other = comment(item2, "Other", now.minusDays(5));
+
+        List<CommentView> comments = commentRepository.findLatestByItemIdIn(List.of(item1.getId(), item2.getId()), 2);
+
+        assertEquals(List.of(sameTime2.getId(), latest.getId(), other.getId()), ids(comments));
+        assertEquals(sameTime1.getCreated(), comments.get(0).getCreated());
+    }
+
+    private Item item(String name) {
+        return itemRepository.save(Item.builder()
                 .owner(user)
-                .name("Item 1")
-                .description("Description 1")
+                .name(name)
+                .description("Description of " + name)
                 .available(true)
-                .build();
-        itemRepository.save(item);
+                .build());
+    }
 
-        Comment comment1 = Comment.builder()
-                .text("Comment 1")
-                .item(item)
-                .authorName(user)
-                .created(LocalDateTime.now())
-                .build();
-        Comment comment2 = Comment.builder()
-                .text("Comment 2")
-                .item(item)
-                .authorName(user)
-                .created(LocalDateTime.now())
-                .build();
-        Comment comment3 = Comment.builder()
-                .text("Comment 3")
+    private Comment comment(Item item, String text, LocalDateTime created) {
+        return commentRepository.save(Comment.builder()
+                .text(text)
                 .item(item)
                 .authorName(user)
-                .created(LocalDateTime.now())
-                .build();
-
-        commentRepository.save(comment1);
-        commentRepository.save(comment2);
-        commentRepository.save(comment3);
-
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
+                .created(created)
+                .build());
+    }
 
-        assertEquals(3, comments.size());
-        assertTrue(comments.contains(comment1));
-        assertTrue(comments.contains(comment2));
-        assertTrue(comments.contains(comment3));
+    private List<Integer> ids(List<CommentView> comments) {
+        return comments.stream().map(CommentView::getId).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemTextView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -69,19 +70,33 @@ public class ItemRepositoryTest {
 
     @Test
     public void testFindAllByOwnerIdOrderById() {
-        Page<Item> result = itemRepository.findAllByOwnerIdOrderById(user.getId(), PageRequest.of(0, 10));
+        List<Item> result = itemRepository.findAllByOwnerIdOrderById(user.getId(), PageRequest.of(0, 10));
 
-        assertEquals(2, result.getTotalElements());
-        assertTrue(result.getContent().contains(item1));
-        assertTrue(result.getContent().contains(item2));
+        assertEquals(2, result.size());
+        assertTrue(result.contains(item1));
+        assertTrue(result.contains(item2));
     }
 
     @Test
     public void testSearchItems() {
-        Page<Item> result = itemRepository.searchItems("Item", PageRequest.of(0, 10));
-        assertEquals(2, result.getTotalElements());
-        assertTrue(result.getContent().contains(item1));
-        assertTrue(result.getContent().contains(item2));
+        List<Item> result = itemRepository.searchItems("Item", PageRequest.of(0, 10));
+        assertEquals(2, result.size());
+        assertTrue(result.contains(item1));
+        assertTrue(result.contains(item2));
+    }
+
+    @Test
+    public void testSearchItemsMatchesSubstringOfNameOrDescription() {
+        Item drill = itemRepository.save(Item.builder()
+                .owner(user)
+                .name("Drill")
+                .description("Ударная дрель Bosch")
+                .available(true)
+                .build());
+
+        assertEquals(List.of(drill), itemRepository.searchItems("ILL", PageRequest.of(0, 10)));
+        assertEquals(List.of(drill), itemRepository.searchItems("ная дрель", PageRequest.of(0, 10)));
+        assertTrue(itemRepository.searchItems("дрель ударная", PageRequest.of(0, 10)).isEmpty());
     }
 
     @Test
@@ -124,4 +139,50 @@ public class ItemRepositoryTest {
         assertTrue(result.contains(item1));
         assertTrue(result.contains(item2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindByRequestIdIn() {
+        ItemRequest first = itemRequestRepository.save(ItemRequest.builder()
+                .description("First request")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest second = itemRequestRepository.save(ItemRequest.builder()
+                .description("Second request")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest other = itemRequestRepository.save(ItemRequest.builder()
+                .description("Other request")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build());
+        item1.setRequest(first);
+        item2.setRequest(second);
+        Item otherItem = itemRepository.save(Item.builder()
+                .owner(user)
+                .request(other)
+                .name("Item 3")
+                .description("Description 3")
+                .available(true)
+                .build());
+
+        List<Item> result = itemRepository.findByRequestIdIn(List.of(first.getId(), second.getId()));
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(item1));
+        assertTrue(result.contains(item2));
+        assertFalse(result.contains(otherItem));
+    }
+
+    @Test
+    public void testFindAllByIdGreaterThanOrderById() {
+        List<ItemTextView> result = itemRepository.findAllByIdGreaterThanOrderById(item1.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, result.size());
+        assertEquals(item2.getId(), result.get(0).getId());
+        assertEquals(item2.getName(), result.get(0).getName());
+        assertEquals(item2.getDescription(), result.get(0).getDescription());
+        assertEquals(item2.getAvailable(), result.get(0).getAvailable());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchTrigramIndexesTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ItemSearchTrigramIndexes itemSearchTrigramIndexes;
+
+    @Test
+    void testSkipsNonPostgresDatabase() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        itemSearchTrigramIndexes.apply();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testSkipsIndexesWithoutExtension() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(false);
+
+        itemSearchTrigramIndexes.apply();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testCreatesIndexesIdempotently() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(true);
+
+        itemSearchTrigramIndexes.apply();
+
+        for (String index : ItemSearchTrigramIndexes.INDEXES) {
+            verify(jdbcTemplate).execute(index);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private FullTextItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new FullTextItemSearchEngine(itemRepository);
+    }
+
+    @Test
+    void testToTsQuery() {
+        assertEquals("дрель:* & bosch:*", FullTextItemSearchEngine.toTsQuery("  Дрель, BOSCH!"));
+        assertEquals("", FullTextItemSearchEngine.toTsQuery("&|!:*"));
+    }
+
+    @Test
+    void testToTsQueryMatchesWordPrefixesOfEveryTerm() {
+        assertEquals("ill:*", FullTextItemSearchEngine.toTsQuery("ill"));
+        assertEquals("ударная:* & дрель:*", FullTextItemSearchEngine.toTsQuery("ударная дрель"));
+    }
+
+    @Test
+    void testSearch() {
+        Pageable pageable = PageRequest.of(0, 10);
+        List<Item> items = List.of(Item.builder().id(1).name("Дрель").available(true).build());
+        when(itemRepository.searchItemsFullText("дрель:*", pageable)).thenReturn(items);
+
+        assertEquals(items, searchEngine.search("дрель", pageable));
+    }
+
+    @Test
+    void testSearchWithoutWords() {
+        assertTrue(searchEngine.search("&&", PageRequest.of(0, 10)).isEmpty());
+
+        verify(itemRepository, never()).searchItemsFullText(anyString(), any(Pageable.class));
+    }
+}
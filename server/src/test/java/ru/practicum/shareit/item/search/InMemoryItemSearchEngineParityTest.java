@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class InMemoryItemSearchEngineParityTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    private LikeItemSearchEngine likeSearchEngine;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").build());
+        itemRepository.save(Item.builder().owner(owner).name("Дрель Bosch").description("Ударная дрель")
+                .available(true).build());
+        itemRepository.save(Item.builder().owner(owner).name("Отвертка").description("Аккумуляторная отвертка Bosch")
+                .available(true).build());
+        itemRepository.save(Item.builder().owner(owner).name("Дрель Makita").description("Старая дрель")
+                .available(false).build());
+        itemRepository.save(Item.builder().owner(owner).name("Drill").description("Cordless drill")
+                .available(true).build());
+        itemRepository.save(Item.builder().owner(owner).name("Лестница").description("Стремянка, 2 м")
+                .available(true).build());
+        searchEngine = new InMemoryItemSearchEngine(itemRepository, new SimpleMeterRegistry(), 1024 * 1024);
+        likeSearchEngine = new LikeItemSearchEngine(itemRepository);
+    }
+
+    @Test
+    void testIndexReturnsSameResultsAsDatabaseFallback() {
+        List<String> queries = List.of("ill", "DRILL", "ная дрель", "дрель ударная", "bosch", "ль", "р", "2 м",
+                "makita", "нет");
+        List<List<Item>> fallbackFirstPages = search(queries, PageRequest.of(0, 2));
+        List<List<Item>> fallbackSecondPages = search(queries, PageRequest.of(1, 2));
+
+        searchEngine.load();
+
+        assertEquals(fallbackFirstPages, search(queries, PageRequest.of(0, 2)));
+        assertEquals(fallbackSecondPages, search(queries, PageRequest.of(1, 2)));
+        assertEquals(queries.stream()
+                        .map(text -> likeSearchEngine.search(text, PageRequest.of(0, 10)))
+                        .collect(Collectors.toList()),
+                search(queries, PageRequest.of(0, 10)));
+    }
+
+    private List<List<Item>> search(List<String> queries, PageRequest pageable) {
+        return queries.stream()
+                .map(text -> searchEngine.search(text, pageable))
+                .collect(Collectors.toList());
+    }
+}
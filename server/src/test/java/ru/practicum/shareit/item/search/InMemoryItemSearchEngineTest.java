@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    private Item drill;
+
+    private Item screwdriver;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InMemoryItemSearchEngine(itemRepository, meterRegistry, 1024 * 1024);
+        drill = Item.builder().id(1).name("Дрель").description("Ударная дрель").available(true).build();
+        screwdriver = Item.builder().id(2).name("Отвертка").description("Крестовая").available(true).build();
+    }
+
+    @Test
+    void testLoadAndSearch() {
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(toView(drill), toView(screwdriver)));
+        when(itemRepository.findAllById(List.of(1))).thenReturn(List.of(drill));
+
+        searchEngine.load();
+        List<Item> result = searchEngine.search("дрель", PageRequest.of(0, 10));
+
+        assertEquals(List.of(drill), result);
+        assertEquals(2.0, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertTrue(meterRegistry.get("shareit.search.index.size").gauge().value() > 0);
+        verify(itemRepository, never()).searchItems(any(), any(Pageable.class));
+    }
+
+    @Test
+    void testFallsBackToDatabaseUntilLoaded() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(itemRepository.searchItems("дрель", pageable)).thenReturn(List.of(drill));
+        searchEngine.onItemSaved(drill);
+
+        assertEquals(List.of(drill), searchEngine.search("дрель", pageable));
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testLoadKeepsNewerUpdates() {
+        Item renamed = Item.builder().id(1).name("Перфоратор").description("Новое описание").available(true).build();
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(toView(drill)));
+        when(itemRepository.findAllById(List.of(1))).thenReturn(List.of(renamed));
+
+        searchEngine.onItemSaved(renamed);
+        searchEngine.load();
+
+        assertTrue(searchEngine.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(renamed), searchEngine.search("перфоратор", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testOnItemSavedUpdatesAvailability() {
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyInt(), any(Pageable.class))).thenReturn(List.of());
+        searchEngine.load();
+        searchEngine.onItemSaved(drill);
+        when(itemRepository.findAllById(List.of(1))).thenReturn(List.of(drill));
+        assertEquals(List.of(drill), searchEngine.search("удар", PageRequest.of(0, 10)));
+
+        drill.setAvailable(false);
+        searchEngine.onItemSaved(drill);
+
+        assertTrue(searchEngine.search("удар", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void testFallsBackToDatabaseWhenOverBudget() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        searchEngine = new InMemoryItemSearchEngine(itemRepository, registry, 16);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(itemRepository.searchItems("дрель", pageable)).thenReturn(List.of(drill));
+
+        assertFalse(searchEngine.isOverBudget());
+        searchEngine.onItemSaved(drill);
+
+        assertTrue(searchEngine.isOverBudget());
+        assertEquals(1.0, registry.get("shareit.search.index.over-budget").gauge().value());
+        assertEquals(List.of(drill), searchEngine.search("дрель", pageable));
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    private ItemTextView toView(Item item) {
+        return projectionFactory.createProjection(ItemTextView.class, Map.of(
+                "id", item.getId(),
+                "name", item.getName(),
+                "description", item.getDescription(),
+                "available", item.getAvailable()));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemIndexTest {
+
+    private ItemIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemIndex();
+        index.put(3, "Дрель Bosch", "Ударная дрель", true);
+        index.put(1, "Отвертка", "Аккумуляторная отвертка Bosch", true);
+        index.put(2, "Дрель Makita", "Старая дрель", false);
+    }
+
+    @Test
+    void testSearchBySubstringIsCaseInsensitiveAndOrderedById() {
+        assertArrayEquals(new int[]{1, 3}, index.search("BOS", 0, 10));
+        assertArrayEquals(new int[]{3}, index.search("рель", 0, 10));
+        assertArrayEquals(new int[]{1, 3}, index.search("osc", 0, 10));
+    }
+
+    @Test
+    void testSearchMatchesWholeTextInOneField() {
+        assertArrayEquals(new int[]{3}, index.search("дрель bosch", 0, 10));
+        assertArrayEquals(new int[0], index.search("bosch дрель", 0, 10));
+        assertArrayEquals(new int[0], index.search("bosch отвертка", 0, 10));
+    }
+
+    @Test
+    void testSearchShorterThanTrigram() {
+        assertArrayEquals(new int[]{3}, index.search("ль", 0, 10));
+        assertArrayEquals(new int[]{1, 3}, index.search("B", 0, 10));
+    }
+
+    @Test
+    void testSearchAppliesOffsetAndLimit() {
+        assertArrayEquals(new int[]{1}, index.search("bosch", 0, 1));
+        assertArrayEquals(new int[]{3}, index.search("bosch", 1, 1));
+        assertArrayEquals(new int[0], index.search("bosch", 2, 1));
+    }
+
+    @Test
+    void testPutReplacesPreviousTextAndAvailability() {
+        index.put(2, "Перфоратор", "Мощный", true);
+
+        assertArrayEquals(new int[]{3}, index.search("дрель", 0, 10));
+        assertArrayEquals(new int[]{2}, index.search("перфоратор", 0, 10));
+        assertEquals(3, index.size());
+
+        index.put(3, "Дрель Bosch", "Ударная дрель", false);
+
+        assertArrayEquals(new int[0], index.search("дрель", 0, 10));
+    }
+
+    @Test
+    void testRemoveAndClearReleaseMemory() {
+        long sizeBefore = index.estimatedSizeBytes();
+        index.put(4, "Лестница", "Стремянка", true);
+        assertTrue(index.estimatedSizeBytes() > sizeBefore);
+
+        index.remove(4);
+        assertArrayEquals(new int[0], index.search("лестница", 0, 10));
+        assertEquals(3, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.search("bosch", 0, 10));
+    }
+
+    @Test
+    void testSearchWithoutMatches() {
+        assertArrayEquals(new int[0], index.search(" ,.! ", 0, 10));
+        assertArrayEquals(new int[0], index.search("bosh", 0, 10));
+    }
+}
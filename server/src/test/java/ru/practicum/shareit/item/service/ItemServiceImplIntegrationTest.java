@@ -6,19 +6,45 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.support.StatementCounter;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static ru.practicum.shareit.support.StatementCounter.countStatements;
 
-@SpringBootTest
+@SpringBootTest(properties = StatementCounter.STATISTICS_PROPERTY)
 @Transactional
 public class ItemServiceImplIntegrationTest {
     @Autowired
     private ItemService itemService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
     private final EasyRandom random = new EasyRandom();
 
     @Test
@@ -39,4 +65,71 @@ public class ItemServiceImplIntegrationTest {
         assertEquals(item.getName(), itemDto1.getName());
         assertEquals(item.getDescription(), itemDto1.getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void getItemsByOwnerIdShouldRunConstantNumberOfStatements() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@example.com").build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 12; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .owner(owner)
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .build());
+            bookingRepository.saveAll(List.of(
+                    Booking.builder().item(item).booker(booker).status(Status.APPROVED)
+                            .start(now.minusDays(2)).end(now.minusDays(1)).build(),
+                    Booking.builder().item(item).booker(booker).status(Status.WAITING)
+                            .start(now.plusDays(1)).end(now.plusDays(2)).build()));
+            commentRepository.save(Comment.builder().item(item).authorName(booker).text("Comment " + i)
+                    .created(now).build());
+        }
+        entityManager.flush();
+
+        long smallPageStatements = countStatements(entityManager,
+                () -> itemService.getItemsByOwnerId(owner.getId(), 0, 2));
+        long largePageStatements = countStatements(entityManager,
+                () -> itemService.getItemsByOwnerId(owner.getId(), 0, 10));
+
+        assertEquals(smallPageStatements, largePageStatements);
+
+        entityManager.clear();
+        List<ItemDto> items = itemService.getItemsByOwnerId(owner.getId(), 0, 10);
+        assertEquals(10, items.size());
+        assertNotNull(items.get(9).getLastBooking());
+        assertNotNull(items.get(9).getNextBooking());
+        assertEquals(1, items.get(9).getComments().size());
+    }
+
+    @Test
+    @DirtiesContext
+    void getItemShouldReturnLatestCommentsOnly() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@example.com").build());
+        User author = userRepository.save(User.builder().name("author").email("author@example.com").build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Item item = itemRepository.save(Item.builder()
+                .owner(owner)
+                .name("Item")
+                .description("Description")
+                .available(true)
+                .build());
+        for (int i = 0; i < 15; i++) {
+            commentRepository.save(Comment.builder().item(item).authorName(author).text("Comment " + i)
+                    .created(now.minusMinutes(15 - i)).build());
+        }
+        entityManager.flush();
+
+        long statements = countStatements(entityManager, () -> itemService.getItem(owner.getId(), item.getId()));
+
+        entityManager.clear();
+        ItemDto itemDto = itemService.getItem(owner.getId(), item.getId());
+        assertEquals(3, statements);
+        assertEquals(10, itemDto.getComments().size());
+        assertEquals("Comment 5", itemDto.getComments().get(0).getText());
+        assertEquals("Comment 14", itemDto.getComments().get(9).getText());
+        assertEquals("author", itemDto.getComments().get(9).getAuthorName());
+    }
+}
@@ -8,16 +8,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.dto.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.BusyIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentFullDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
@@ -25,6 +30,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -35,6 +41,7 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -62,11 +69,17 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private AvailabilityCalendar availabilityCalendar;
 
     private ItemServiceImpl itemService;
 
     private final EasyRandom random = new EasyRandom();
 
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
     private ItemDto itemDto;
 
     private UserDto userDto;
@@ -77,7 +90,8 @@ class ItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userService, bookingRepository, commentRepository, itemRequestRepository);
+        itemService = new ItemServiceImpl(itemRepository, userService, bookingRepository, commentRepository, itemRequestRepository,
+                itemSearchEngine, availabilityCalendar);
 
         itemDto = new ItemDto();
         itemDto.setId(1);
@@ -120,6 +134,7 @@ class ItemServiceImplTest {
         verify(userService, times(1)).getUserById(userId);
         verify(itemRequestRepository, times(1)).findById(itemDto.getRequestId());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemSearchEngine, times(1)).onItemSaved(any(Item.class));
     }
 
     @Test
@@ -151,6 +166,7 @@ class ItemServiceImplTest {
 
         verify(userService, times(1)).getUserById(userId);
         verify(itemRepository, times(1)).findById(itemId);
+        verify(itemSearchEngine, times(1)).onItemSaved(existingItem);
     }
 
     @Test
@@ -234,11 +250,11 @@ class ItemServiceImplTest {
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.findLastBookingByOwnerId(
-                anyInt(), anyInt(), Mockito.any(Status.class), Mockito.any(LocalDateTime.class))).thenReturn(List.of(lastBooking));
-        when(bookingRepository.findNextBookingByOwnerId(
-                anyInt(), anyInt(), Mockito.any(Status.class), Mockito.any(LocalDateTime.class))).thenReturn(List.of(nextBooking));
-        when(commentRepository.findAllByItemId(anyInt())).thenReturn(comments);
+        when(bookingRepository.findLastAndNextBookingsByItemIds(
+                Mockito.anyCollection(), anyInt(), Mockito.anyString(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(toBookingShortView(item, lastBooking, true), toBookingShortView(item, nextBooking, false)));
+        when(commentRepository.findLatestByItemIdIn(Mockito.anyCollection(), eq(10)))
+                .thenReturn(comments.stream().map(comment -> toCommentView(item, comment)).collect(Collectors.toList()));
 
         assertEquals(itemDto, itemService.getItem(item.getId(), owner.getId()));
     }
@@ -253,19 +269,23 @@ class ItemServiceImplTest {
         Booking lastBooking = random.nextObject(Booking.class);
         Booking nextBooking = random.nextObject(Booking.class);
         List<Comment> comments = random.objects(Comment.class, 2).collect(Collectors.toList());
-        Page<Item> itemsPage = new PageImpl<>(random.objects(Item.class, 10)
+        List<Item> items = random.objects(Item.class, 10)
                 .peek(item -> {
                     item.setOwner(owner);
                     item.setLastBooking(lastBooking);
                     item.setNextBooking(nextBooking);
                     item.setComments(comments);
                 })
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
 
         when(itemRepository.findAllByOwnerIdOrderById(anyInt(), Mockito.any(Pageable.class)))
-                .thenReturn(itemsPage);
+                .thenReturn(items);
         List<ItemDto> itemsDto = itemService.getItemsByOwnerId(userId, page, size);
         assertEquals(size, itemsDto.size());
+
+        verify(bookingRepository, times(1)).findLastAndNextBookingsByItemIds(
+                Mockito.anyCollection(), anyInt(), Mockito.anyString(), Mockito.any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findLatestByItemIdIn(Mockito.anyCollection(), eq(10));
     }
 
     @Test
@@ -320,10 +340,8 @@ class ItemServiceImplTest {
                 .map(ItemMapper::toItem)
                 .collect(Collectors.toList());
 
-        Page<Item> itemPage = new PageImpl<>(items);
-
-        when(itemRepository.searchItems(Mockito.anyString(), any(Pageable.class)))
-                .thenReturn(itemPage);
+        when(itemSearchEngine.search(Mockito.anyString(), any(Pageable.class)))
+                .thenReturn(items);
 
         List<ItemDto> searchResult = itemService.searchItems(text, 0, 5);
 
@@ -350,9 +368,74 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).findByRequestId(requestId);
     }
-}
 
+    @Test
+    void findByRequestIdInTest() {
+        List<Integer> requestIds = List.of(1, 2);
+        List<Item> expectedItems = List.of(new Item(), new Item());
 
+        when(itemRepository.findByRequestIdIn(requestIds)).thenReturn(expectedItems);
 
+        assertEquals(expectedItems, itemService.findByRequestIdIn(requestIds));
+    }
 
+    @Test
+    void findByRequestIdInShouldSkipQueryForEmptyIds() {
+        assertEquals(Collections.emptyList(), itemService.findByRequestIdIn(Collections.emptyList()));
 
+        verify(itemRepository, never()).findByRequestIdIn(any());
+    }
+
+    @Test
+    void testGetItemAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        List<BusyIntervalDto> busy = List.of(new BusyIntervalDto(from.plusHours(1), from.plusHours(5)));
+        when(itemRepository.existsById(1)).thenReturn(true);
+        when(availabilityCalendar.getBusyIntervals(1, from, to)).thenReturn(busy);
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(2, 1, from, to);
+
+        assertEquals(1, availability.getItemId());
+        assertEquals(from, availability.getFrom());
+        assertEquals(to, availability.getTo());
+        assertEquals(busy, availability.getBusy());
+        verify(userService).getUserById(2);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenGetItemAvailabilityWithInvalidPeriod() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(2, 1, from, from));
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(2, 1, from, from.plusYears(2)));
+        verify(availabilityCalendar, never()).getBusyIntervals(Mockito.anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenGetItemAvailabilityForUnknownItem() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.existsById(1)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemAvailability(2, 1, from, from.plusDays(1)));
+    }
+
+    private BookingShortView toBookingShortView(Item item, Booking booking, boolean past) {
+        return projectionFactory.createProjection(BookingShortView.class, Map.of(
+                "id", booking.getId(),
+                "bookerId", booking.getBooker().getId(),
+                "start", booking.getStart(),
+                "end", booking.getEnd(),
+                "itemId", item.getId(),
+                "past", past));
+    }
+
+    private CommentView toCommentView(Item item, Comment comment) {
+        return projectionFactory.createProjection(CommentView.class, Map.of(
+                "id", comment.getId(),
+                "itemId", item.getId(),
+                "text", comment.getText(),
+                "authorName", comment.getAuthorName().getName(),
+                "created", comment.getCreated()));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void testParse() {
+        assertEquals(new KeysetCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 5),
+                KeysetCursor.parse("2030-01-01T10:00, 5"));
+    }
+
+    @Test
+    void testParseRejectsMalformedToken() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.parse("2030-01-01T10:00"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.parse("bad,5"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.parse("2030-01-01T10:00,x"));
+    }
+}
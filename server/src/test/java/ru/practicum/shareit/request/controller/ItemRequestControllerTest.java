@@ -113,6 +113,27 @@ class ItemRequestControllerTest {
         Mockito.verify(itemRequestService).getAllRequests(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
     }
 
+    @Test
+    void testGetAllRequestsAfterCursor() throws Exception {
+        ItemRequestFullDto itemRequestFullDto = random.nextObject(ItemRequestFullDto.class);
+        itemRequestFullDto.setItems(null);
+
+        when(itemRequestService.getAllRequestsAfter(1, "2023-05-01T12:00,5", 2))
+                .thenReturn(List.of(itemRequestFullDto));
+
+        mvc.perform(get("/requests/all")
+                        .header(USER_ID_HEADER, 1)
+                        .param("after", "2023-05-01T12:00,5")
+                        .param("size", "2")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.ALL_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemRequestFullDto.getId()));
+
+        Mockito.verify(itemRequestService, Mockito.never())
+                .getAllRequests(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
     @Test
     void testGetRequestById() throws Exception {
         int requestorId = 1;
@@ -5,19 +5,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.support.SqlRecorder;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = SqlRecorder.INSPECTOR_PROPERTY)
 class ItemRequestRepositoryTest {
 
     @Autowired
@@ -26,6 +31,9 @@ class ItemRequestRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User user;
 
     private ItemRequest itemRequest;
@@ -68,10 +76,10 @@ class ItemRequestRepositoryTest {
     }
 
     @Test
-    public void findByRequestorIdOrderByCreatedDescTest() {
+    public void findByRequestorIdOrderByCreatedDescIdDescTest() {
         itemRequestRepository.save(itemRequest);
 
-        List<ItemRequest> result = itemRequestRepository.findByRequestorIdOrderByCreatedDesc(user.getId());
+        List<ItemRequest> result = itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(user.getId());
         assertEquals(1, result.size());
         assertTrue(result.contains(itemRequest));
 
@@ -79,15 +87,27 @@ class ItemRequestRepositoryTest {
 
 
     @Test
-    void findAllByOrderByCreatedDescTest() {
-        itemRequestRepository.save(request1);
-        itemRequestRepository.save(request2);
-
-        Page<ItemRequest> result = itemRequestRepository.findAllByOrderByCreatedDesc(PageRequest.of(0, 10));
-
-        assertEquals(2, result.getTotalElements());
-        assertTrue(result.getContent().contains(request1));
-        assertTrue(result.getContent().contains(request2));
+    void findAllByRequestorIdNotShouldExcludeOwnRequestsInQuery() {
+        User other = userRepository.save(User.builder().name("other").email("other@example.com").build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        itemRequestRepository.save(ItemRequest.builder().description("Own").requestor(user).created(now).build());
+        ItemRequest older = itemRequestRepository.save(ItemRequest.builder()
+                .description("Older").requestor(other).created(now.minusHours(1)).build());
+        ItemRequest newer = itemRequestRepository.save(ItemRequest.builder()
+                .description("Newer").requestor(other).created(now.minusMinutes(1)).build());
+        ItemRequest sameTime = itemRequestRepository.save(ItemRequest.builder()
+                .description("Same time").requestor(other).created(now.minusMinutes(1)).build());
+
+        List<ItemRequest> firstPage = itemRequestRepository
+                .findAllByRequestorIdNotOrderByCreatedDescIdDesc(user.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(sameTime, newer), firstPage);
+
+        ItemRequest last = firstPage.get(firstPage.size() - 1);
+        List<ItemRequest> nextPage = itemRequestRepository.findOtherRequestsAfter(user.getId(),
+                last.getCreated(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(older), nextPage);
     }
 
     @Test
@@ -96,4 +116,38 @@ class ItemRequestRepositoryTest {
         ItemRequest foundRequest = itemRequestRepository.findByIdAndRequestorId(itemRequest.getId(), user.getId());
         assertEquals(foundRequest, itemRequest);
     }
+
+    @Test
+    void requestListQueriesShouldOrderOnceAndUseIndexes() {
+        User other = userRepository.save(User.builder().name("other").email("other@example.com").build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(new Object[]{"Request " + i, i % 10 == 0 ? user.getId() : other.getId(), now.minusMinutes(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (description, requestor_id, created) VALUES (?, ?, ?)", rows);
+
+        Map<String, Runnable> feedQueries = Map.of(
+                "feed", () -> itemRequestRepository
+                        .findAllByRequestorIdNotOrderByCreatedDescIdDesc(user.getId(), PageRequest.of(0, 10)),
+                "feed after cursor", () -> itemRequestRepository
+                        .findOtherRequestsAfter(user.getId(), now.minusMinutes(100), 0, PageRequest.of(0, 10)));
+        feedQueries.forEach((name, query) -> {
+            String plan = explain(name, query);
+            assertTrue(plan.contains("IDX_REQUESTS_CREATED"), plan);
+            assertTrue(plan.contains("index sorted"), plan);
+        });
+
+        String plan = explain("user requests", () -> itemRequestRepository
+                .findByRequestorIdOrderByCreatedDescIdDesc(user.getId()));
+        assertFalse(plan.contains("REQUESTS.tableScan"), plan);
+    }
+
+    private String explain(String name, Runnable query) {
+        List<String> statements = SqlRecorder.record(query);
+        assertEquals(1, statements.size(), name);
+        String sql = statements.get(0);
+        assertEquals(1, sql.toLowerCase().split("order by", -1).length - 1, sql);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
 }
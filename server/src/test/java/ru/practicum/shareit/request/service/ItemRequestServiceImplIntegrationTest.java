@@ -6,20 +6,39 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.support.StatementCounter;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.support.StatementCounter.countStatements;
 
-@SpringBootTest
+@SpringBootTest(properties = StatementCounter.STATISTICS_PROPERTY)
 @Transactional
 public class ItemRequestServiceImplIntegrationTest {
     @Autowired
     private ItemRequestService itemRequestService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     private final EasyRandom random = new EasyRandom();
 
@@ -38,4 +57,53 @@ public class ItemRequestServiceImplIntegrationTest {
         assertEquals(itemRequestCreateDto.getDescription(), itemRequestFullDto.getDescription());
     }
 
+    @Test
+    @DirtiesContext
+    void requestListsShouldRunConstantNumberOfStatements() {
+        LocalDateTime now = LocalDateTime.now();
+        User viewer = userRepository.save(User.builder().name("viewer").email("viewer@example.com").build());
+        for (int i = 0; i < 10; i++) {
+            User requestor = userRepository.save(User.builder().name("requestor " + i)
+                    .email("requestor" + i + "@example.com").build());
+            User owner = userRepository.save(User.builder().name("owner " + i)
+                    .email("owner" + i + "@example.com").build());
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Нужна дрель " + i)
+                    .requestor(i % 2 == 0 ? requestor : viewer)
+                    .created(now.minusHours(i))
+                    .build());
+            itemRepository.save(Item.builder().owner(owner).request(request)
+                    .name("Дрель " + i).description("Дрель ударная " + i).available(true).build());
+        }
+        entityManager.flush();
+
+        long smallPageStatements = countStatements(entityManager,
+                () -> itemRequestService.getAllRequests(viewer.getId(), 0, 2));
+        long largePageStatements = countStatements(entityManager,
+                () -> itemRequestService.getAllRequests(viewer.getId(), 0, 10));
+        long cursorStatements = countStatements(entityManager,
+                () -> itemRequestService.getAllRequestsAfter(viewer.getId(), now + ",0", 10));
+        long userStatements = countStatements(entityManager, () -> itemRequestService.getUserRequests(viewer.getId()));
+
+        assertEquals(smallPageStatements, largePageStatements);
+        assertEquals(largePageStatements, cursorStatements);
+        assertEquals(largePageStatements, userStatements);
+        assertEquals(3, largePageStatements);
+
+        entityManager.clear();
+        List<ItemRequestFullDto> requests = itemRequestService.getAllRequests(viewer.getId(), 0, 10);
+        assertEquals(5, requests.size());
+        assertEquals("Нужна дрель 0", requests.get(0).getDescription());
+        assertEquals("requestor 0", requests.get(0).getRequestor().getName());
+        assertEquals("Дрель 0", requests.get(0).getItems().get(0).getName());
+        assertEquals(requests.get(0).getId(), requests.get(0).getItems().get(0).getRequestId());
+
+        List<ItemRequestFullDto> firstPage = itemRequestService.getAllRequests(viewer.getId(), 0, 2);
+        ItemRequestFullDto last = firstPage.get(firstPage.size() - 1);
+        List<ItemRequestFullDto> nextPage = itemRequestService.getAllRequestsAfter(viewer.getId(),
+                last.getCreated() + "," + last.getId(), 2);
+        assertEquals(2, firstPage.size());
+        assertEquals(List.of("Нужна дрель 4", "Нужна дрель 6"),
+                List.of(nextPage.get(0).getDescription(), nextPage.get(1).getDescription()));
+    }
 }
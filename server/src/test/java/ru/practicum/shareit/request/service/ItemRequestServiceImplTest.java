@@ -6,12 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -31,8 +29,11 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -111,8 +112,8 @@ class ItemRequestServiceImplTest {
                 .build();
 
         when(userService.getUserById(userId)).thenReturn(userDto);
-        when(itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId)).thenReturn(Collections.singletonList(itemRequest));
-        when(itemService.findByRequestId(itemRequest.getId())).thenReturn(Collections.singletonList(item1));
+        when(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(userId)).thenReturn(Collections.singletonList(itemRequest));
+        when(itemService.findByRequestIdIn(List.of(itemRequest.getId()))).thenReturn(Collections.singletonList(item1));
 
         List<ItemRequestFullDto> result = itemRequestService.getUserRequests(userId);
 
@@ -121,9 +122,11 @@ class ItemRequestServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
 
-        verify(itemRequestRepository, times(1)).findByRequestorIdOrderByCreatedDesc(userId);
+        verify(itemRequestRepository, times(1)).findByRequestorIdOrderByCreatedDescIdDesc(userId);
 
-        verify(itemService, times(1)).findByRequestId(itemRequest.getId());
+        verify(itemService, times(1)).findByRequestIdIn(List.of(itemRequest.getId()));
+        assertEquals(1, result.get(0).getItems().size());
+        assertEquals("Item 1", result.get(0).getItems().get(0).getName());
     }
 
     @Test
@@ -155,22 +158,52 @@ class ItemRequestServiceImplTest {
         List<ItemRequest> itemRequests = new ArrayList<>();
         itemRequests.add(itemRequest);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
-        Page<ItemRequest> page = new PageImpl<>(itemRequests, pageable, itemRequests.size());
+        Pageable pageable = PageRequest.of(from / size, size);
 
         when(userService.getUserById(userId)).thenReturn(userDto);
-        when(itemRequestRepository.findAllByOrderByCreatedDesc(pageable)).thenReturn(page);
-        when(itemService.findByRequestId(itemRequest.getId())).thenReturn(Collections.singletonList(item1));
+        when(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDescIdDesc(userId, pageable))
+                .thenReturn(itemRequests);
+        when(itemService.findByRequestIdIn(List.of(itemRequest.getId()))).thenReturn(Collections.singletonList(item1));
 
         List<ItemRequestFullDto> result = itemRequestService.getAllRequests(userId, from, size);
 
         verify(userService, times(1)).getUserById(userId);
-        verify(itemRequestRepository, times(1)).findAllByOrderByCreatedDesc(pageable);
+        verify(itemRequestRepository, times(1)).findAllByRequestorIdNotOrderByCreatedDescIdDesc(userId, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.size());
     }
 
+    @Test
+    void testGetAllRequestsAfter() {
+        int userId = 1;
+        LocalDateTime created = LocalDateTime.of(2023, 5, 1, 12, 0);
+
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(3);
+        itemRequest.setDescription("Test item request description");
+        itemRequest.setRequestor(UserMapper.INSTANCE.toUser(userDto));
+        itemRequest.setCreated(created.minusHours(1));
+
+        when(userService.getUserById(userId)).thenReturn(userDto);
+        when(itemRequestRepository.findOtherRequestsAfter(userId, created, 5, PageRequest.of(0, 2)))
+                .thenReturn(List.of(itemRequest));
+        when(itemService.findByRequestIdIn(List.of(3))).thenReturn(Collections.emptyList());
+
+        List<ItemRequestFullDto> result = itemRequestService.getAllRequestsAfter(userId, "2023-05-01T12:00,5", 2);
+
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(0).getId());
+        assertTrue(result.get(0).getItems().isEmpty());
+    }
+
+    @Test
+    void testGetAllRequestsAfterWithMalformedCursor() {
+        assertThrows(ValidationException.class, () -> itemRequestService.getAllRequestsAfter(1, "not-a-cursor", 2));
+
+        verify(itemRequestRepository, never()).findOtherRequestsAfter(anyInt(), any(), anyInt(), any());
+    }
+
 
     @Test
     void testGetRequestByIdValidRequest() {
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestItemsTest {
+
+    @Test
+    void shouldGroupItemsByRequestId() {
+        Item first = item(1, 30);
+        Item second = item(2, 10);
+        Item third = item(3, 30);
+
+        RequestItems requestItems = new RequestItems(new int[]{30, 20, 10}, List.of(first, second, third));
+
+        assertEquals(List.of(first, third), requestItems.get(30));
+        assertEquals(List.of(second), requestItems.get(10));
+        assertTrue(requestItems.get(20).isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyListForUnknownRequest() {
+        RequestItems requestItems = new RequestItems(new int[]{1}, List.of(item(1, 2)));
+
+        assertTrue(requestItems.get(1).isEmpty());
+        assertTrue(requestItems.get(2).isEmpty());
+    }
+
+    private Item item(int id, int requestId) {
+        return Item.builder()
+                .id(id)
+                .request(ItemRequest.builder().id(requestId).build())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class SqlRecorder implements StatementInspector {
+
+    public static final String INSPECTOR_PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "ru.practicum.shareit.support.SqlRecorder";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.toLowerCase().startsWith("select")) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> record(Runnable action) {
+        STATEMENTS.clear();
+        action.run();
+        return List.copyOf(STATEMENTS);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManager;
+
+public final class StatementCounter {
+
+    public static final String STATISTICS_PROPERTY = "spring.jpa.properties.hibernate.generate_statistics=true";
+
+    private StatementCounter() {
+    }
+
+    public static long countStatements(EntityManager entityManager, Runnable action) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -9,21 +9,27 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -61,6 +67,46 @@ class UserControllerTest {
         Mockito.verify(userService).getAllUsers();
     }
 
+    @Test
+    void testGetUsersPage() throws Exception {
+        List<UserDto> usersDto = List.of(userDto);
+        when(userService.getUsers(5, 1)).thenReturn(usersDto);
+
+        mvc.perform(get("/users")
+                        .param("from", "5")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(userDto.getId()));
+
+        Mockito.verify(userService).getUsers(5, 1);
+        Mockito.verify(userService, Mockito.never()).getAllUsers();
+    }
+
+    @Test
+    void testStreamAllUsers() throws Exception {
+        UserDto userDto2 = random.nextObject(UserDto.class);
+        Mockito.doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(userDto);
+            consumer.accept(userDto2);
+            return null;
+        }).when(userService).streamAllUsers(Mockito.any());
+
+        MvcResult asyncResult = mvc.perform(get("/users")
+                        .accept(UserController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"
+                        + mapper.writeValueAsString(userDto2) + "\n"));
+
+        Mockito.verify(userService, Mockito.never()).getAllUsers();
+    }
+
     @Test
     void testGetUserById() throws Exception {
         when(userService.getUserById(userDto.getId())).thenReturn(userDto);
@@ -91,6 +137,19 @@ class UserControllerTest {
         Mockito.verify(userService).addUser(Mockito.any(User.class));
     }
 
+    @Test
+    void testAddUserWithDuplicateEmail() throws Exception {
+        when(userService.addUser(Mockito.any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate email"));
+
+        mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(userDto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value(409));
+    }
+
     @Test
     void testUpdateUser() throws Exception {
         when(userService.updateUser(Mockito.anyInt(), Mockito.any(User.class))).thenReturn(userDto);
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user1;
+
+    private User user2;
+
+    @BeforeEach
+    void setUp() {
+        user1 = userRepository.save(User.builder()
+                .name("John")
+                .email("john@example.com")
+                .build());
+        user2 = userRepository.save(User.builder()
+                .name("Alice")
+                .email("alice@example.com")
+                .build());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testExistsByEmailAndIdNot() {
+        assertTrue(userRepository.existsByEmailAndIdNot("john@example.com", user2.getId()));
+        assertFalse(userRepository.existsByEmailAndIdNot("john@example.com", user1.getId()));
+        assertFalse(userRepository.existsByEmailAndIdNot("bob@example.com", user1.getId()));
+    }
+
+    @Test
+    void testFindAllByIdGreaterThanOrderById() {
+        List<User> firstPage = userRepository.findAllByIdGreaterThanOrderById(0, PageRequest.of(0, 1));
+        List<User> secondPage = userRepository.findAllByIdGreaterThanOrderById(firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertEquals(List.of(user1.getId()), firstPage.stream().map(User::getId).collect(Collectors.toList()));
+        assertEquals(List.of(user2.getId()), secondPage.stream().map(User::getId).collect(Collectors.toList()));
+        assertTrue(userRepository.findAllByIdGreaterThanOrderById(user2.getId(), PageRequest.of(0, 1)).isEmpty());
+    }
+
+    @Test
+    void testStreamAllUsers() {
+        List<UserDto> users;
+        try (Stream<UserDto> stream = userRepository.streamAllUsers()) {
+            users = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(new UserDto(user1.getId(), "John", "john@example.com"),
+                new UserDto(user2.getId(), "Alice", "alice@example.com")), users);
+    }
+}
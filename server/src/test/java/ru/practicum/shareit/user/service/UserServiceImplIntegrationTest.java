@@ -1,21 +1,45 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.support.StatementCounter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.support.StatementCounter.countStatements;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "spring.cache.type=caffeine",
+        StatementCounter.STATISTICS_PROPERTY
+})
 @Transactional
 public class UserServiceImplIntegrationTest {
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     private final EasyRandom random = new EasyRandom();
 
     @Test
@@ -31,4 +55,70 @@ public class UserServiceImplIntegrationTest {
         assertEquals(userDto.getName(), user.getName());
         assertEquals(userDto.getEmail(), user.getEmail());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void getUserByIdShouldBeServedFromCache() {
+        User user = userRepository.save(User.builder().name("John").email("john@example.com").build());
+        entityManager.flush();
+
+        long statements = countStatements(entityManager, () -> assertEquals(userService.getUserById(user.getId()),
+                userService.getUserById(user.getId())));
+
+        assertEquals(1, statements);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserServiceImpl.USERS_CACHE)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserServiceImpl.USERS_CACHE)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DirtiesContext
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateUserShouldEvictCachedUser() {
+        User user = userRepository.save(User.builder().name("John").email("john@example.com").build());
+        userService.getUserById(user.getId());
+
+        userService.updateUser(user.getId(), User.builder().name("Johnny").build());
+
+        assertEquals("Johnny", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    @DirtiesContext
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void removeUserShouldEvictCachedUser() {
+        User user = userRepository.save(User.builder().name("John").email("john@example.com").build());
+        userService.getUserById(user.getId());
+
+        userService.removeUser(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    @DirtiesContext
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentReadBeforeCommitShouldNotCacheStaleUser() throws Exception {
+        User user = userRepository.save(User.builder().name("John").email("john@example.com").build());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userService.updateUser(user.getId(), User.builder().name("Johnny").build());
+                entityManager.flush();
+                try {
+                    assertEquals("John", executor.submit(() -> userService.getUserById(user.getId())).get().getName());
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("Johnny", userService.getUserById(user.getId()).getName());
+        assertEquals("Johnny", userService.getUserById(user.getId()).getName());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserServiceImpl.USERS_CACHE)
+                .tag("result", "hit").functionCounter().count());
+    }
+}
@@ -5,19 +5,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,7 +39,7 @@ public class UserServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new NoOpCacheManager());
         user = new User();
         user.setId(1);
         user.setName("John");
@@ -81,6 +86,30 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetUsers() {
+        when(userRepository.findAllByIdGreaterThanOrderById(0, PageRequest.of(0, 1))).thenReturn(List.of(user));
+
+        List<UserDto> userDtos = userService.getUsers(0, 1);
+
+        assertEquals(1, userDtos.size());
+        assertEquals(user.getId(), userDtos.get(0).getId());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testStreamAllUsers() {
+        UserDto userDto1 = new UserDto(1, "John", "john@example.com");
+        UserDto userDto2 = new UserDto(2, "Alice", "alice@example.com");
+        when(userRepository.streamAllUsers()).thenReturn(Stream.of(userDto1, userDto2));
+
+        List<UserDto> consumed = new ArrayList<>();
+        userService.streamAllUsers(consumed::add);
+
+        assertEquals(List.of(userDto1, userDto2), consumed);
+        verify(userRepository, never()).findAll();
+    }
+
     @Test
     void testGetUserByIdValid() {
         int userId = 1;
@@ -184,7 +213,7 @@ public class UserServiceImplTest {
         updatedUser.setName("Updated Name");
         updatedUser.setEmail("john@example.com");
 
-        when(userRepository.findAll()).thenReturn(List.of(user, existingUser2));
+        when(userRepository.existsByEmailAndIdNot(updatedUser.getEmail(), updatedUser.getId())).thenReturn(true);
         when(userRepository.findById(updatedUser.getId())).thenReturn(Optional.of(updatedUser));
 
         assertThrows(ConflictException.class, () -> {
@@ -192,7 +221,7 @@ public class UserServiceImplTest {
         });
 
         verify(userRepository, times(0)).save(any(User.class));
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, never()).findAll();
         verify(userRepository, times(1)).findById(updatedUser.getId());
     }
 
@@ -207,6 +236,7 @@ public class UserServiceImplTest {
 
         assertEquals(updatedUser.getName(), user.getName());
         assertEquals(user.getEmail(), "john@example.com");
+        verify(userRepository, never()).existsByEmailAndIdNot(any(), any());
     }
 
     @Test